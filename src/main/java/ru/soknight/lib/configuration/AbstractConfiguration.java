@@ -8,6 +8,7 @@ import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 import ru.soknight.lib.tool.Validate;
 
 import java.io.File;
@@ -17,7 +18,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -33,6 +37,7 @@ public abstract class AbstractConfiguration {
 	protected @Nullable InputStream resource;
 
 	protected FileConfiguration configuration;
+	private volatile ColoredSnapshot coloredSnapshot = ColoredSnapshot.EMPTY;
 
 	/**
 	 * Create a new abstract configuration instance using default data folder path and configuration resource.
@@ -175,6 +180,15 @@ public abstract class AbstractConfiguration {
 		}
 		
 		this.configuration = YamlConfiguration.loadConfiguration(filePath.toFile());
+		this.coloredSnapshot = ColoredSnapshot.create(configuration);
+	}
+
+	/**
+	 * Get the immutable snapshot of all colored string values built on the last refresh.
+	 * @return The map of full paths to colored string values.
+	 */
+	protected @NotNull Map<String, String> getColoredStrings() {
+		return coloredSnapshot.strings;
 	}
 
 	protected @NotNull String getResourcePath() {
@@ -235,6 +249,10 @@ public abstract class AbstractConfiguration {
 	 * @return received string or null if section not contains string value
 	 */
 	public String getColoredString(String section) {
+		String colored = section != null ? coloredSnapshot.strings.get(section) : null;
+		if(colored != null)
+			return colored;
+
 		String string = configuration.isString(section) ? configuration.getString(section) : null;
 		return string == null ? null : colorize(string);
 	}
@@ -246,6 +264,10 @@ public abstract class AbstractConfiguration {
 	 * @return received string or 'def' value if section not contains string value
 	 */
 	public String getColoredString(String section, String def) {
+		String colored = section != null ? coloredSnapshot.strings.get(section) : null;
+		if(colored != null)
+			return colored;
+
 		String string = configuration.getString(section, def);
 		return string == null ? null : colorize(string);
 	}
@@ -358,15 +380,22 @@ public abstract class AbstractConfiguration {
 	
 	/**
 	 * Getting strings list from file and replacing '&#' to color codes
+	 * <br>
+	 * The cached colored list is returned as is without copying, so the list is unmodifiable,
+	 * copy it if you need to change it
 	 * @param section - section with target strings list in file
-	 * @return received strings list or null if section not contains strings list
+	 * @return received unmodifiable strings list or null if section not contains strings list
 	 */
-	public List<String> getColoredList(String section) {
+	public @Unmodifiable List<String> getColoredList(String section) {
+		List<String> cached = section != null ? coloredSnapshot.lists.get(section) : null;
+		if(cached != null)
+			return cached;
+
 		List<String> list = configuration.getStringList(section);
 
 		List<String> colored = new ArrayList<>();
 		list.forEach(s -> colored.add(colorize(s)));
-		return colored;
+		return Collections.unmodifiableList(colored);
 	}
 	
 	/**
@@ -436,6 +465,43 @@ public abstract class AbstractConfiguration {
 			exception.printStackTrace();
 	}
 
+	/**
+	 * The colored values of all string and strings list properties, so the static messages
+	 * are colorized once per refresh instead of once per read. Changes made at runtime through
+	 * the Bukkit configuration become visible after the next refresh, values which are missing
+	 * here are resolved from the configuration as usual.
+	 */
+	private static final class ColoredSnapshot {
+
+		private static final ColoredSnapshot EMPTY = new ColoredSnapshot(Collections.emptyMap(), Collections.emptyMap());
+
+		private final Map<String, String> strings;
+		private final Map<String, List<String>> lists;
+
+		private ColoredSnapshot(@NotNull Map<String, String> strings, @NotNull Map<String, List<String>> lists) {
+			this.strings = strings;
+			this.lists = lists;
+		}
+
+		private static @NotNull ColoredSnapshot create(@NotNull ConfigurationSection configuration) {
+			Map<String, String> strings = new HashMap<>();
+			Map<String, List<String>> lists = new HashMap<>();
+
+			for(String path : configuration.getKeys(true)) {
+				if(configuration.isString(path)) {
+					strings.put(path, colorize(configuration.getString(path)));
+				} else if(configuration.isList(path)) {
+					List<String> colored = new ArrayList<>();
+					configuration.getStringList(path).forEach(s -> colored.add(colorize(s)));
+					lists.put(path, Collections.unmodifiableList(colored));
+				}
+			}
+
+			return new ColoredSnapshot(Collections.unmodifiableMap(strings), Collections.unmodifiableMap(lists));
+		}
+
+	}
+
 	/********************************
 	 * 								*
 	 *    BACKWARD COMPATIBILITY    *
@@ -0,0 +1,95 @@
+package ru.soknight.lib.configuration;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The compiled 'actionbar' list of a messages file.
+ * <br>
+ * Exact entries are placed into a hash set, the 'section.*' entries are placed into a prefix trie,
+ * so a check takes O(path length) time. The results are memoized per checked section.
+ */
+final class ActionbarRules {
+
+	static final ActionbarRules EMPTY = new ActionbarRules(new HashSet<>(), new Node());
+
+	private static final String WILDCARD_SUFFIX = ".*";
+	private static final int MAX_MEMOIZED_SECTIONS = 4096;
+
+	private final Set<String> exactSections;
+	private final Node prefixes;
+	private final Map<String, Boolean> memoized;
+
+	private ActionbarRules(@NotNull Set<String> exactSections, @NotNull Node prefixes) {
+		this.exactSections = exactSections;
+		this.prefixes = prefixes;
+		this.memoized = new ConcurrentHashMap<>();
+	}
+
+	static @NotNull ActionbarRules compile(Collection<String> entries) {
+		if(entries == null || entries.isEmpty())
+			return EMPTY;
+
+		Set<String> exactSections = new HashSet<>();
+		Node prefixes = new Node();
+
+		for(String entry : entries) {
+			if(entry == null)
+				continue;
+
+			exactSections.add(entry);
+			if(entry.endsWith(WILDCARD_SUFFIX))
+				prefixes.insert(entry.substring(0, entry.length() - 1));
+		}
+
+		return new ActionbarRules(exactSections, prefixes);
+	}
+
+	boolean matches(String section) {
+		if(section == null || this == EMPTY)
+			return false;
+
+		Boolean result = memoized.get(section);
+		if(result != null)
+			return result;
+
+		boolean matches = exactSections.contains(section) || prefixes.matchesPrefixOf(section);
+		if(memoized.size() < MAX_MEMOIZED_SECTIONS)
+			memoized.put(section, matches);
+
+		return matches;
+	}
+
+	private static final class Node {
+
+		private final Map<Character, Node> children = new HashMap<>();
+		private boolean terminal;
+
+		private void insert(@NotNull String prefix) {
+			Node node = this;
+			for(int i = 0; i < prefix.length(); i++)
+				node = node.children.computeIfAbsent(prefix.charAt(i), ch -> new Node());
+			node.terminal = true;
+		}
+
+		private boolean matchesPrefixOf(@NotNull String section) {
+			Node node = this;
+			for(int i = 0; i < section.length(); i++) {
+				node = node.children.get(section.charAt(i));
+				if(node == null)
+					return false;
+				if(node.terminal)
+					return true;
+			}
+			return false;
+		}
+
+	}
+
+}
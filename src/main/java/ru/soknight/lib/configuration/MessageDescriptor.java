@@ -0,0 +1,49 @@
+package ru.soknight.lib.configuration;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The message metadata resolved on the messages refresh: the way to send it,
+ * the precompiled text and the title timing.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class MessageDescriptor {
+
+    private final @NotNull Kind kind;
+    private final @Nullable MessageTemplate text;
+    private final @Nullable MessageTemplate subtitle;
+    private final int fadeInTicks;
+    private final int stayTicks;
+    private final int fadeOutTicks;
+
+    static @NotNull MessageDescriptor text(@NotNull Kind kind, @NotNull MessageTemplate text) {
+        return new MessageDescriptor(kind, text, null, 0, 0, 0);
+    }
+
+    public enum Kind {
+
+        CHAT,
+        ACTIONBAR,
+        TITLE,
+        DISABLED;
+
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "MessageDescriptor{" +
+                "kind=" + kind +
+                ", text=" + text +
+                ", subtitle=" + subtitle +
+                ", fadeInTicks=" + fadeInTicks +
+                ", stayTicks=" + stayTicks +
+                ", fadeOutTicks=" + fadeOutTicks +
+                '}';
+    }
+
+}
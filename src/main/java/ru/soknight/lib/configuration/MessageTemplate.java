@@ -0,0 +1,177 @@
+package ru.soknight.lib.configuration;
+
+import org.jetbrains.annotations.NotNull;
+import ru.soknight.lib.tool.Validate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The message precompiled into literal segments and placeholder slots.
+ * <br>
+ * A placeholder is a token like '%name%' which contains only letters, digits and '_', '-', '.' chars.
+ * Rendering replaces all slots in a single pass, the inserted values are never scanned for placeholders again,
+ * see {@link #isRenderable(Object...)} for the cases which must be formatted sequentially.
+ */
+public final class MessageTemplate {
+
+	private static final String[] NO_SLOTS = new String[0];
+
+	private final String source;
+	private final String[] literals;
+	private final String[] slots;
+	private final int literalsLength;
+	private final boolean ambiguous;
+
+	private MessageTemplate(@NotNull String source, @NotNull String[] literals, @NotNull String[] slots, boolean ambiguous) {
+		this.source = source;
+		this.literals = literals;
+		this.slots = slots;
+		this.ambiguous = ambiguous;
+
+		int literalsLength = 0;
+		for(String literal : literals)
+			literalsLength += literal.length();
+		this.literalsLength = literalsLength;
+	}
+
+	/**
+	 * Compile a message to the template
+	 * @param source the message to compile
+	 * @return the compiled template
+	 */
+	public static @NotNull MessageTemplate compile(@NotNull String source) {
+		Validate.notNull(source, "source");
+
+		List<String> literals = new ArrayList<>();
+		List<String> slots = new ArrayList<>();
+		boolean ambiguous = false;
+
+		int literalStart = 0;
+		int index = source.indexOf('%');
+		while(index != -1) {
+			int end = findPlaceholderEnd(source, index);
+			if(end == -1) {
+				index = source.indexOf('%', index + 1);
+				continue;
+			}
+
+			// the closing '%' may also open another placeholder, e.g. '%a%b%'
+			if(findPlaceholderEnd(source, end) != -1)
+				ambiguous = true;
+
+			literals.add(source.substring(literalStart, index));
+			slots.add(source.substring(index, end + 1));
+			literalStart = end + 1;
+			index = source.indexOf('%', literalStart);
+		}
+		literals.add(source.substring(literalStart));
+
+		String[] slotsArray = slots.isEmpty() ? NO_SLOTS : slots.toArray(new String[0]);
+		return new MessageTemplate(source, literals.toArray(new String[0]), slotsArray, ambiguous);
+	}
+
+	/**
+	 * Check is a string is a placeholder which can be replaced by the template rendering
+	 * @param string the string to check
+	 * @return 'true' if it's a placeholder like '%name%'
+	 */
+	public static boolean isPlaceholder(@NotNull String string) {
+		return string.length() > 2 && string.charAt(0) == '%' && findPlaceholderEnd(string, 0) == string.length() - 1;
+	}
+
+	private static int findPlaceholderEnd(@NotNull String source, int start) {
+		int length = source.length();
+		for(int i = start + 1; i < length; i++) {
+			char ch = source.charAt(i);
+			if(ch == '%')
+				return i > start + 1 ? i : -1;
+
+			if(!Character.isLetterOrDigit(ch) && ch != '_' && ch != '-' && ch != '.')
+				return -1;
+		}
+		return -1;
+	}
+
+	public @NotNull String getSource() {
+		return source;
+	}
+
+	public boolean hasPlaceholders() {
+		return slots.length != 0;
+	}
+
+	/**
+	 * Check is the replacements can be rendered by this template with the same result
+	 * as the sequential replacing by {@link AbstractConfiguration#format(String, Object...)}
+	 * <br>
+	 * The sequential replacing scans the inserted values for the next placeholders, so the values
+	 * which contain '%' (a nested placeholder may be there) must be formatted instead.
+	 * @param replacements the replacements array formatted as '..., placeholder, value, ...'
+	 * @return 'true' if all replaced placeholders are the '%name%' tokens and no value contains '%'
+	 */
+	public boolean isRenderable(Object... replacements) {
+		if(ambiguous)
+			return false;
+
+		if(replacements == null)
+			return true;
+
+		for(int i = 0; i < replacements.length - 1; i += 2) {
+			Object placeholder = replacements[i];
+			if(!(placeholder instanceof CharSequence) || !isPlaceholder(placeholder.toString()))
+				return false;
+
+			// numbers never contain '%', so their formatting is skipped
+			Object value = replacements[i + 1];
+			if(value != null && !(value instanceof Number) && value.toString().indexOf('%') != -1)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Render this template replacing the placeholders in a single pass
+	 * @param replacements the replacements array formatted as '..., placeholder, value, ...'
+	 * @return the rendered message
+	 */
+	public @NotNull String render(Object... replacements) {
+		if(slots.length == 0 || replacements == null || replacements.length < 2)
+			return source;
+
+		String[] values = new String[slots.length];
+		int length = literalsLength;
+		for(int i = 0; i < slots.length; i++) {
+			String value = findValue(slots[i], replacements);
+			values[i] = value;
+			length += value.length();
+		}
+
+		StringBuilder builder = new StringBuilder(length);
+		for(int i = 0; i < slots.length; i++)
+			builder.append(literals[i]).append(values[i]);
+
+		return builder.append(literals[slots.length]).toString();
+	}
+
+	private static @NotNull String findValue(@NotNull String slot, @NotNull Object[] replacements) {
+		for(int i = 0; i < replacements.length - 1; i += 2) {
+			if(slot.equals(replacements[i].toString())) {
+				Object value = replacements[i + 1];
+				return value != null ? value.toString() : "";
+			}
+		}
+
+		// the placeholder isn't replaced
+		return slot;
+	}
+
+	@Override
+	public @NotNull String toString() {
+		return "MessageTemplate{" +
+				"source='" + source + '\'' +
+				", slots=" + slots.length +
+				'}';
+	}
+
+}
@@ -18,7 +18,10 @@ import java.io.File;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration of messages file which contains methods for working with plugin messages
@@ -27,6 +30,10 @@ public class Messages extends AbstractConfiguration {
 
 	public static final String DISABLED_MESSAGE_MARKER = "@#DISABLED";
 
+	private volatile Map<String, MessageTemplate> templates = Collections.emptyMap();
+	private volatile ActionbarRules actionbarRules = ActionbarRules.EMPTY;
+	private volatile Map<String, MessageDescriptor> descriptors = Collections.emptyMap();
+
 	/**
 	 * Create a new messages instance using default data folder path and configuration resource.
 	 * @param plugin The plugin that will use this configuration.
@@ -69,6 +76,81 @@ public class Messages extends AbstractConfiguration {
 		super(plugin, fileName, dataFolderPath, resource);
 	}
 	
+	/**
+	 * Refresh the messages file, precompile all colored messages to templates and resolve their descriptors.
+	 * @param verbose The debug logging boolean flag.
+	 */
+	@Override
+	public void refresh(boolean verbose) {
+		super.refresh(verbose);
+
+		Map<String, MessageTemplate> templates = new HashMap<>();
+		getColoredStrings().forEach((path, message) -> templates.put(path, MessageTemplate.compile(message)));
+
+		ActionbarRules actionbarRules = ActionbarRules.compile(getList("actionbar"));
+
+		Map<String, MessageDescriptor> descriptors = new HashMap<>();
+		for(String path : configuration.getKeys(true)) {
+			MessageDescriptor descriptor = resolveDescriptor(path, templates, actionbarRules);
+			if(descriptor != null)
+				descriptors.put(path, descriptor);
+		}
+
+		this.templates = Collections.unmodifiableMap(templates);
+		this.actionbarRules = actionbarRules;
+		this.descriptors = Collections.unmodifiableMap(descriptors);
+	}
+
+	private @Nullable MessageDescriptor resolveDescriptor(
+			@NotNull String path,
+			@NotNull Map<String, MessageTemplate> templates,
+			@NotNull ActionbarRules actionbarRules
+	) {
+		if(configuration.isConfigurationSection(path)) {
+			String titlePath = path + ".title";
+			String subtitlePath = path + ".subtitle";
+			if(!configuration.isSet(titlePath) && !configuration.isSet(subtitlePath))
+				return null;
+
+			return new MessageDescriptor(
+					MessageDescriptor.Kind.TITLE,
+					templates.get(titlePath),
+					templates.get(subtitlePath),
+					getInt(path + ".fade-in", 0),
+					getInt(path + ".stay", 0),
+					getInt(path + ".fade-out", 0)
+			);
+		}
+
+		MessageTemplate template = templates.get(path);
+		if(template == null)
+			return null;
+
+		if(isIgnoredMessage(template.getSource()))
+			return MessageDescriptor.text(MessageDescriptor.Kind.DISABLED, template);
+
+		MessageDescriptor.Kind kind = actionbarRules.matches(path) ? MessageDescriptor.Kind.ACTIONBAR : MessageDescriptor.Kind.CHAT;
+		return MessageDescriptor.text(kind, template);
+	}
+
+	/**
+	 * Get the message descriptor resolved on the last refresh.
+	 * @param path A full path to message in configuration.
+	 * @return The message descriptor or null if there is no message in this path
+	 */
+	public @Nullable MessageDescriptor getDescriptor(String path) {
+		return path != null ? descriptors.get(path) : null;
+	}
+
+	/**
+	 * Get the precompiled template of a colored message.
+	 * @param section Section with target message in file
+	 * @return The message template or null if this section doesn't contain a message
+	 */
+	public @Nullable MessageTemplate getTemplate(String section) {
+		return section != null ? templates.get(section) : null;
+	}
+
 	/**
 	 * Getting colored message from file
 	 * @param section Section with target message in file
@@ -143,8 +225,8 @@ public class Messages extends AbstractConfiguration {
 	 * @return Formatted string with replaced placeholders or message about not exist message
 	 */
 	public String getFormattedOrDefault(String section, String def, Object... replacements) {
-		String message = getColoredString(section);
-		return message != null ? format(message, replacements) : def;
+		String message = formatMessage(section, replacements);
+		return message != null ? message : def;
 	}
 	
 	/**
@@ -168,8 +250,8 @@ public class Messages extends AbstractConfiguration {
 		if(!isTitle(path))
 			return null;
 
-		String title = format(getColoredString(path + ".title"), replacements);
-		String subtitle = format(getColoredString(path + ".subtitle"), replacements);
+		String title = formatMessage(path + ".title", replacements);
+		String subtitle = formatMessage(path + ".subtitle", replacements);
 		int fadeInTicks = getInt(path + ".fade-in", 0);
 		int stayTicks = getInt(path + ".stay", 0);
 		int fadeOutTicks = getInt(path + ".fade-out", 0);
@@ -330,6 +412,12 @@ public class Messages extends AbstractConfiguration {
 		if(sender == null || section == null)
 			return;
 
+		MessageDescriptor descriptor = getDescriptor(section);
+		if(descriptor != null) {
+			sendDescribed(sender, descriptor);
+			return;
+		}
+
 		if(isTitle(section)) {
 			Title title = getTitle(section);
 			title.send(sender);
@@ -349,6 +437,12 @@ public class Messages extends AbstractConfiguration {
 	public void sendFormatted(CommandSender sender, String section, Object... replacements) {
 		if(sender == null || section == null) return;
 
+		MessageDescriptor descriptor = getDescriptor(section);
+		if(descriptor != null) {
+			sendDescribed(sender, descriptor, replacements);
+			return;
+		}
+
 		if(isTitle(section)) {
 			Title title = getTitleFormatted(section, replacements);
 			title.send(sender);
@@ -384,25 +478,8 @@ public class Messages extends AbstractConfiguration {
 	 * @return 'true' if this message must be sent into player's actionbar or 'false' if not
 	 */
 	public boolean isActionbar(String section) {
-		List<String> actionBarPreferred = getList("actionbar");
-		if(actionBarPreferred == null || actionBarPreferred.isEmpty())
-			return false;
-		
-		// Directly contains check
-		if(actionBarPreferred.contains(section))
-			return true;
-		
-		// Check parent sections
-		for(String key : actionBarPreferred) {
-			if(!key.endsWith(".*"))
-				continue;
-			
-			// If specified parent section then return true
-			if(section.startsWith(key.substring(0, key.length() - 1)))
-				return true;
-		}
-			
-		return false;
+		// the rules are compiled from the 'actionbar' list on refresh
+		return actionbarRules.matches(section);
 	}
 
 	/**
@@ -411,6 +488,10 @@ public class Messages extends AbstractConfiguration {
 	 * @return A boolean value: 'true' if it's a title or 'false' overwise.
 	 */
 	public boolean isTitle(@NotNull String path) {
+		MessageDescriptor descriptor = getDescriptor(path);
+		if(descriptor != null)
+			return descriptor.getKind() == MessageDescriptor.Kind.TITLE;
+
 		Configuration config = getBukkitConfig();
 		if(!config.isConfigurationSection(path))
 			return false;
@@ -418,6 +499,49 @@ public class Messages extends AbstractConfiguration {
 		return config.isSet(path + ".title") || config.isSet(path + ".subtitle");
 	}
 
+	private void sendDescribed(@NotNull CommandSender sender, @NotNull MessageDescriptor descriptor, Object... replacements) {
+		switch(descriptor.getKind()) {
+			case TITLE:
+				new Title(
+						render(descriptor.getText(), replacements),
+						render(descriptor.getSubtitle(), replacements),
+						descriptor.getFadeInTicks(),
+						descriptor.getStayTicks(),
+						descriptor.getFadeOutTicks()
+				).send(sender);
+				break;
+			case CHAT:
+			case ACTIONBAR:
+				boolean toActionbar = descriptor.getKind() == MessageDescriptor.Kind.ACTIONBAR && sender instanceof Player;
+				send(sender, render(descriptor.getText(), replacements), toActionbar);
+				break;
+			case DISABLED:
+			default:
+				break;
+		}
+	}
+
+	private @Nullable String formatMessage(String section, Object... replacements) {
+		MessageTemplate template = getTemplate(section);
+		if(template != null)
+			return render(template, replacements);
+
+		String message = getColoredString(section);
+		return message != null ? format(message, replacements) : null;
+	}
+
+	private @Nullable String render(@Nullable MessageTemplate template, Object... replacements) {
+		if(template == null)
+			return null;
+
+		if(replacements == null || replacements.length == 0)
+			return template.getSource();
+
+		return template.isRenderable(replacements)
+				? template.render(replacements)
+				: format(template.getSource(), replacements);
+	}
+
 	private boolean isIgnoredMessage(String text) {
 		return text == null || text.equals(DISABLED_MESSAGE_MARKER);
 	}
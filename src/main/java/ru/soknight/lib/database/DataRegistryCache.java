@@ -0,0 +1,139 @@
+package ru.soknight.lib.database;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The in-memory write-behind storage used by {@link DataRegistryManager}.
+ * <br>
+ * Every key is either cached with its value, cached as missing or unknown (not loaded yet).
+ * Modified keys are marked as dirty and collected by the next flush, so any number
+ * of changes of the same key between two flushes are written to the database once.
+ * <br>
+ * When the amount of cached keys exceeds the max size, the clean keys are evicted and loaded
+ * again on the next read. The dirty keys and the keys being flushed are never evicted,
+ * so the cache may exceed the max size while there are more unflushed changes.
+ */
+final class DataRegistryCache {
+
+    private static final Object MISSING = new Object();
+
+    private final int maxSize;
+    private final Map<String, Object> values;
+    private final Set<String> dirtyKeys;
+    private final Set<String> flushingKeys;
+
+    DataRegistryCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.values = new ConcurrentHashMap<>();
+        this.dirtyKeys = ConcurrentHashMap.newKeySet();
+        this.flushingKeys = ConcurrentHashMap.newKeySet();
+    }
+
+    boolean isLoaded(@NotNull String key) {
+        return values.containsKey(key);
+    }
+
+    @Nullable String getValue(@NotNull String key) {
+        Object value = values.get(key);
+        return value instanceof String ? (String) value : null;
+    }
+
+    void load(@NotNull String key, @Nullable String value) {
+        // never overwrite a fresher local change with a loaded value
+        values.putIfAbsent(key, value != null ? value : MISSING);
+        evictIfNeeded();
+    }
+
+    void put(@NotNull String key, @NotNull String value) {
+        change(key, value);
+    }
+
+    void remove(@NotNull String key) {
+        change(key, MISSING);
+    }
+
+    // the key is marked inside the compute call, so the eviction never sees a changed but unmarked key
+    private void change(@NotNull String key, @NotNull Object value) {
+        values.compute(key, (k, previous) -> {
+            dirtyKeys.add(k);
+            return value;
+        });
+        evictIfNeeded();
+    }
+
+    boolean hasDirtyKeys() {
+        return !dirtyKeys.isEmpty();
+    }
+
+    /**
+     * Collect all dirty keys and unmark them, the keys are kept in the cache until {@link #finishFlush(Collection)}.
+     * @param updated the output map of updated keys and their actual values
+     * @param removed the output set of removed keys
+     */
+    void drainDirty(@NotNull Map<String, String> updated, @NotNull Set<String> removed) {
+        for(String key : dirtyKeys) {
+            values.computeIfPresent(key, (k, value) -> {
+                // unmark first, so a concurrent change will mark this key again
+                dirtyKeys.remove(k);
+                flushingKeys.add(k);
+
+                if(value instanceof String) {
+                    updated.put(k, (String) value);
+                } else {
+                    removed.add(k);
+                }
+                return value;
+            });
+        }
+    }
+
+    /**
+     * Mark keys as dirty again after a failed flush, their latest values will be written by the next one.
+     */
+    void restoreDirty(@NotNull Collection<String> keys) {
+        dirtyKeys.addAll(keys);
+    }
+
+    /**
+     * Allow the eviction of the flushed keys, should be called when the flush is committed or restored.
+     */
+    void finishFlush(@NotNull Collection<String> keys) {
+        flushingKeys.removeAll(keys);
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        // there is nothing to evict if all cached keys aren't flushed yet
+        if(values.size() <= maxSize || values.size() <= dirtyKeys.size() + flushingKeys.size())
+            return;
+
+        Iterator<String> iterator = values.keySet().iterator();
+        while(iterator.hasNext() && values.size() > maxSize) {
+            values.computeIfPresent(iterator.next(), (key, value) -> {
+                if(dirtyKeys.contains(key) || flushingKeys.contains(key))
+                    return value;
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Apply the cached changes over a snapshot loaded from the database.
+     */
+    @NotNull Map<String, String> overlay(@NotNull Map<String, String> loaded) {
+        Map<String, String> output = new LinkedHashMap<>(loaded);
+        values.forEach((key, value) -> {
+            if(value instanceof String) {
+                output.put(key, (String) value);
+            } else {
+                output.remove(key);
+            }
+        });
+        return output;
+    }
+
+}
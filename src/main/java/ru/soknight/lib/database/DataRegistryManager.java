@@ -2,61 +2,279 @@ package ru.soknight.lib.database;
 
 import com.j256.ormlite.dao.Dao;
 import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.misc.TransactionManager;
 import com.j256.ormlite.support.ConnectionSource;
 import com.j256.ormlite.table.TableUtils;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import ru.soknight.lib.database.connection.SingleWriterExecutorService;
 import ru.soknight.lib.database.model.DataEntry;
 import ru.soknight.lib.executable.quiet.AbstractQuietExecutor;
+import ru.soknight.lib.executable.quiet.ThrowableRunnable;
 import ru.soknight.lib.tool.CollectionsTool;
 import ru.soknight.lib.tool.Validate;
 
 import java.sql.SQLException;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 public class DataRegistryManager extends AbstractQuietExecutor {
 
+    private static final int MAX_KEYS_PER_QUERY = 500;
+    private static final int DEFAULT_MAX_CACHED_KEYS = 10_000;
+    private static final int WRITE_LANES_COUNT = 4;
+
+    private final ConnectionSource connection;
+    private final ConnectionSource writeConnection;
     private final Dao<DataEntry, String> dataEntriesDao;
+    private final Dao<DataEntry, String> writeEntriesDao;
+    private final DataRegistryStatements statements;
+    private final DataRegistryStatements writeStatements;
+    private final boolean singleWriter;
+
+    private DataRegistryCache cache;
+    private ScheduledExecutorService flushExecutorService;
 
+    /**
+     * Create the data registry manager.
+     * <br>
+     * With SQLite all writes are executed by the single writer thread on its own connection
+     * (see {@link SingleWriterExecutorService#openWriterConnection(ConnectionSource)}), so the reads
+     * never see the uncommitted writes of a group.
+     * @param plugin the owning plugin
+     * @param connection the connection source
+     * @throws SQLException if the table cannot be created
+     */
     public DataRegistryManager(@NotNull Plugin plugin, @NotNull ConnectionSource connection) throws SQLException {
+        this.connection = connection;
         this.dataEntriesDao = DaoManager.createDao(connection, DataEntry.class);
         TableUtils.createTableIfNotExists(connection, DataEntry.class);
+        this.statements = DataRegistryStatements.create(connection);
+
+        // SQLite allows only one writer, so all writes are serialized with group commits
+        this.singleWriter = SingleWriterExecutorService.isRequired(connection);
+        if(singleWriter) {
+            this.writeConnection = SingleWriterExecutorService.openWriterConnection(connection);
+            this.writeEntriesDao = DaoManager.createDao(writeConnection, DataEntry.class);
+            this.writeStatements = writeConnection != connection ? DataRegistryStatements.create(writeConnection) : statements;
+        } else {
+            this.writeConnection = connection;
+            this.writeEntriesDao = dataEntriesDao;
+            this.writeStatements = statements;
+        }
 
         super.useCachedThreadPoolAsyncExecutor();
+        if(singleWriter) {
+            super.useQueueExecutor(new SingleWriterExecutorService(writeConnection, plugin.getLogger()));
+        } else {
+            super.useStripedQueueExecutor(WRITE_LANES_COUNT);
+        }
         super.useDatabaseThrowableHandler(plugin);
+        super.useNonBlockingSubmission();
+    }
+
+    /**
+     * Enable the in-memory write-behind cache.
+     * <br>
+     * Reads will be served from memory after the first load of a key, all changes will be
+     * coalesced per key and flushed in one batched transaction with the specified interval
+     * and on {@link #shutdown()}.
+     * <br>
+     * The cache keeps up to {@value #DEFAULT_MAX_CACHED_KEYS} keys, see {@link #useWriteBehindCache(long, TimeUnit, int)}.
+     * @param flushInterval the interval between flushes
+     * @param timeUnit the time unit of the interval
+     * @return this manager
+     */
+    public @NotNull DataRegistryManager useWriteBehindCache(long flushInterval, @NotNull TimeUnit timeUnit) {
+        return useWriteBehindCache(flushInterval, timeUnit, DEFAULT_MAX_CACHED_KEYS);
+    }
+
+    /**
+     * Enable the in-memory write-behind cache with the specified max size.
+     * <br>
+     * When the cache exceeds the max size, the keys which have no unflushed changes are evicted
+     * and loaded from the database again on the next read. The unflushed keys are never evicted,
+     * so the cache may exceed the max size between flushes.
+     * @param flushInterval the interval between flushes
+     * @param timeUnit the time unit of the interval
+     * @param maxCachedKeys the max amount of cached keys
+     * @return this manager
+     */
+    public @NotNull DataRegistryManager useWriteBehindCache(long flushInterval, @NotNull TimeUnit timeUnit, int maxCachedKeys) {
+        Validate.isTrue(flushInterval > 0, "Flush interval must be positive!");
+        Validate.notNull(timeUnit, "timeUnit");
+        Validate.isTrue(maxCachedKeys > 0, "Max cached keys must be positive!");
+        Validate.isTrue(cache == null, "Write-behind cache is already enabled!");
+
+        this.cache = new DataRegistryCache(maxCachedKeys);
+        this.flushExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SKLibrary Data Registry Flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        flushExecutorService.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, timeUnit);
+        return this;
+    }
+
+    public boolean isWriteBehindCacheEnabled() {
+        return cache != null;
+    }
+
+    /**
+     * Write all pending cached changes to the database right now.
+     * <br>
+     * With the single writer (SQLite) the future is completed exceptionally if the group
+     * transaction cannot be committed, the changes will be written by the next flush.
+     * @return a future which will be completed after flushing
+     */
+    public @NotNull CompletableFuture<Void> flush() {
+        if(cache == null || !cache.hasDirtyKeys())
+            return CompletableFuture.completedFuture(null);
+
+        Set<String> flushedKeys = ConcurrentHashMap.newKeySet();
+        return runQuietlyWrite(() -> flushCache(flushedKeys)).whenComplete((ignored, error) -> {
+            // the flushed changes have been rolled back with the group transaction
+            if(error != null)
+                cache.restoreDirty(flushedKeys);
+            cache.finishFlush(flushedKeys);
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        if(flushExecutorService != null) {
+            flushExecutorService.shutdown();
+            try {
+                flushExecutorService.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+            flushQuietly();
+        }
+
+        super.shutdown();
+
+        if(statements != null)
+            statements.close();
+
+        // the own writer connection is closed after the queued writes
+        if(writeConnection != connection) {
+            try {
+                queueExecutorService.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+            }
+
+            if(writeStatements != null)
+                writeStatements.close();
+            writeConnection.closeQuietly();
+        }
     }
 
     public @NotNull CompletableFuture<List<DataEntry>> getAllEntries() {
+        if(cache != null)
+            return getEntriesMap().thenApply(map -> map.entrySet().stream()
+                    .map(entry -> new DataEntry(entry.getKey(), entry.getValue()))
+                    .collect(Collectors.toList()));
+
         return supplyQuietlyAsync(dataEntriesDao::queryForAll);
     }
 
     public @NotNull CompletableFuture<Map<String, String>> getEntriesMap() {
+        if(cache != null)
+            return supplyQuietlyAsync(() -> cache.overlay(CollectionsTool.getMapFromList(
+                    dataEntriesDao.queryForAll(), DataEntry::getKey, DataEntry::getValue
+            )));
+
         return getAllEntries().thenApply(list -> CollectionsTool.getMapFromList(list, DataEntry::getKey, DataEntry::getValue));
     }
 
     public @NotNull CompletableFuture<DataEntry> getEntry(@NotNull String key) {
         Validate.notEmpty(key, "key");
-        return supplyQuietlyAsync(() -> dataEntriesDao.queryForId(key));
+
+        if(cache != null) {
+            if(cache.isLoaded(key))
+                return CompletableFuture.completedFuture(getCachedEntry(key));
+
+            return supplyQuietlyAsync(() -> {
+                DataEntry dataEntry = queryEntry(key);
+                cache.load(key, dataEntry != null ? dataEntry.getValue() : null);
+                return getCachedEntry(key);
+            });
+        }
+
+        return supplyQuietlyAsync(() -> queryEntry(key));
+    }
+
+    /**
+     * Get all existing entries for the specified keys with a single 'IN (...)' query
+     * (large key sets are split into chunks of {@value #MAX_KEYS_PER_QUERY} keys).
+     * @param keys the keys to get
+     * @return a future with found entries mapped by their keys in the requested order
+     */
+    public @NotNull CompletableFuture<Map<String, DataEntry>> getEntries(@NotNull Collection<String> keys) {
+        Validate.notNull(keys, "keys");
+        if(keys.isEmpty())
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+
+        Set<String> uniqueKeys = new LinkedHashSet<>(keys);
+        List<String> notLoadedKeys = cache != null
+                ? uniqueKeys.stream().filter(key -> !cache.isLoaded(key)).collect(Collectors.toList())
+                : new ArrayList<>(uniqueKeys);
+
+        if(cache != null && notLoadedKeys.isEmpty())
+            return CompletableFuture.completedFuture(collectCachedEntries(uniqueKeys));
+
+        return supplyQuietlyAsync(() -> {
+            Map<String, DataEntry> loaded = new HashMap<>();
+            for(int from = 0; from < notLoadedKeys.size(); from += MAX_KEYS_PER_QUERY) {
+                List<String> chunk = notLoadedKeys.subList(from, Math.min(from + MAX_KEYS_PER_QUERY, notLoadedKeys.size()));
+                for(DataEntry dataEntry : dataEntriesDao.queryBuilder().where().in(DataEntry.KEY_COLUMN, chunk).query())
+                    loaded.put(dataEntry.getKey(), dataEntry);
+            }
+
+            if(cache != null) {
+                for(String key : notLoadedKeys) {
+                    DataEntry dataEntry = loaded.get(key);
+                    cache.load(key, dataEntry != null ? dataEntry.getValue() : null);
+                }
+                return collectCachedEntries(uniqueKeys);
+            }
+
+            Map<String, DataEntry> output = new LinkedHashMap<>();
+            for(String key : uniqueKeys) {
+                DataEntry dataEntry = loaded.get(key);
+                if(dataEntry != null)
+                    output.put(key, dataEntry);
+            }
+            return output;
+        });
     }
 
     public @NotNull CompletableFuture<DataEntry> getEntryOrDefault(@NotNull String key, @NotNull Object value) {
         Validate.notEmpty(key, "key");
         Validate.notNull(value, "value");
 
-        return getEntry(key).thenApply(dataEntry ->  {
-            if(dataEntry == null) {
-                dataEntry = new DataEntry(key, value);
-                saveEntry(dataEntry).join();
-            }
-            return dataEntry;
+        return getEntry(key).thenCompose(dataEntry ->  {
+            if(dataEntry != null)
+                return CompletableFuture.completedFuture(dataEntry);
+
+            DataEntry createdEntry = new DataEntry(key, value);
+            return saveEntry(createdEntry).thenApply(ignored -> createdEntry);
         });
     }
 
     public @NotNull CompletableFuture<Boolean> hasEntry(@NotNull String key) {
         Validate.notEmpty(key, "key");
-        return supplyQuietlyAsync(() -> dataEntriesDao.idExists(key));
+
+        if(cache != null)
+            return getEntry(key).thenApply(Objects::nonNull);
+
+        return supplyQuietlyAsync(() -> statements != null ? statements.exists(key) : dataEntriesDao.idExists(key));
     }
 
     public @NotNull CompletableFuture<Void> removeEntry(@NotNull DataEntry dataEntry) {
@@ -66,12 +284,61 @@ public class DataRegistryManager extends AbstractQuietExecutor {
 
     public @NotNull CompletableFuture<Void> removeEntry(@NotNull String key) {
         Validate.notEmpty(key, "key");
-        return runQuietlyAsync(() -> dataEntriesDao.deleteById(key));
+
+        if(cache != null) {
+            cache.remove(key);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return runQuietlyQueue(key, () -> {
+            if(writeStatements != null) {
+                writeStatements.delete(key);
+            } else {
+                writeEntriesDao.deleteById(key);
+            }
+        });
+    }
+
+    /**
+     * Remove all entries with the specified keys in one transaction (by batched statements
+     * or by chunks of {@value #MAX_KEYS_PER_QUERY} keys).
+     * <br>
+     * It's executed after all previously submitted operations of these keys and before all later ones.
+     * @param keys the keys to remove
+     * @return a future which will be completed after removing
+     */
+    public @NotNull CompletableFuture<Void> removeEntries(@NotNull Collection<String> keys) {
+        Validate.notNull(keys, "keys");
+        if(keys.isEmpty())
+            return CompletableFuture.completedFuture(null);
+
+        if(cache != null) {
+            keys.forEach(cache::remove);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Set<String> uniqueKeys = new LinkedHashSet<>(keys);
+        return runQuietlyQueueForKeys(uniqueKeys, () -> TransactionManager.callInTransaction(writeConnection, () -> {
+            deleteAll(uniqueKeys);
+            return null;
+        }));
     }
 
     public @NotNull CompletableFuture<Void> saveEntry(@NotNull DataEntry dataEntry) {
         Validate.notNull(dataEntry, "dataEntry");
-        return runQuietlyAsync(() -> dataEntriesDao.createOrUpdate(dataEntry));
+
+        if(cache != null) {
+            cache.put(dataEntry.getKey(), dataEntry.getValue());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return runQuietlyQueue(dataEntry.getKey(), () -> {
+            if(writeStatements != null) {
+                writeStatements.upsert(dataEntry.getKey(), dataEntry.getValue());
+            } else {
+                writeEntriesDao.createOrUpdate(dataEntry);
+            }
+        });
     }
 
     public @NotNull CompletableFuture<Void> saveEntry(@NotNull String key, @NotNull Object value) {
@@ -80,4 +347,139 @@ public class DataRegistryManager extends AbstractQuietExecutor {
         return saveEntry(new DataEntry(key, value));
     }
 
+    public @NotNull CompletableFuture<Void> saveEntry(@NotNull String key, long value) {
+        Validate.notEmpty(key, "key");
+        return saveEntry(new DataEntry(key, value));
+    }
+
+    /**
+     * Save all specified entries in one transaction.
+     * <br>
+     * It's executed after all previously submitted operations of these keys and before all later ones.
+     * @param entries the entries to save, values will be converted using {@link Object#toString()}
+     * @return a future which will be completed after saving
+     */
+    public @NotNull CompletableFuture<Void> saveEntries(@NotNull Map<String, ?> entries) {
+        Validate.notNull(entries, "entries");
+        if(entries.isEmpty())
+            return CompletableFuture.completedFuture(null);
+
+        Map<String, String> values = new LinkedHashMap<>();
+        entries.forEach((key, value) -> {
+            Validate.notEmpty(key, "key");
+            Validate.notNull(value, "value");
+            values.put(key, value.toString());
+        });
+
+        if(cache != null) {
+            values.forEach(cache::put);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return runQuietlyQueueForKeys(values.keySet(), () -> TransactionManager.callInTransaction(writeConnection, () -> {
+            upsertAll(values);
+            return null;
+        }));
+    }
+
+    /**
+     * Run a cache flush task.
+     * <br>
+     * Flushes are executed by the async executor, but with the single writer
+     * (SQLite) they are queued to the writer thread like all other writes.
+     */
+    private @NotNull CompletableFuture<Void> runQuietlyWrite(@NotNull ThrowableRunnable runnable) {
+        return singleWriter ? runQuietlyQueue(runnable) : runQuietlyAsync(runnable);
+    }
+
+    private void flushQuietly() {
+        if(singleWriter) {
+            // the error is already passed to the throwable handler
+            flush().exceptionally(ignored -> null).join();
+        } else {
+            Set<String> flushedKeys = new HashSet<>();
+            runQuietly(() -> flushCache(flushedKeys));
+            cache.finishFlush(flushedKeys);
+        }
+    }
+
+    private @NotNull Map<String, DataEntry> collectCachedEntries(@NotNull Collection<String> keys) {
+        Map<String, DataEntry> output = new LinkedHashMap<>();
+        for(String key : keys) {
+            DataEntry dataEntry = getCachedEntry(key);
+            if(dataEntry != null)
+                output.put(key, dataEntry);
+        }
+        return output;
+    }
+
+    private DataEntry getCachedEntry(@NotNull String key) {
+        String value = cache.getValue(key);
+        return value != null ? new DataEntry(key, value) : null;
+    }
+
+    private DataEntry queryEntry(@NotNull String key) throws SQLException {
+        if(statements == null)
+            return dataEntriesDao.queryForId(key);
+
+        String value = statements.selectValue(key);
+        return value != null ? new DataEntry(key, value) : null;
+    }
+
+    private void upsertAll(@NotNull Map<String, String> values) throws SQLException {
+        if(writeStatements != null) {
+            writeStatements.upsertAll(values);
+            return;
+        }
+
+        for(Map.Entry<String, String> entry : values.entrySet())
+            writeEntriesDao.createOrUpdate(new DataEntry(entry.getKey(), entry.getValue()));
+    }
+
+    private void deleteAll(@NotNull Collection<String> keys) throws SQLException {
+        if(writeStatements != null) {
+            writeStatements.deleteAll(keys);
+            return;
+        }
+
+        // the keys are bound as the statement variables, so their amount per query is limited
+        List<String> keysList = new ArrayList<>(keys);
+        for(int from = 0; from < keysList.size(); from += MAX_KEYS_PER_QUERY)
+            writeEntriesDao.deleteIds(keysList.subList(from, Math.min(from + MAX_KEYS_PER_QUERY, keysList.size())));
+    }
+
+    /**
+     * Write all dirty cached keys to the database.
+     * <br>
+     * The flushed keys are marked as dirty again if writing fails, the caller must
+     * pass them to {@link DataRegistryCache#finishFlush(Collection)} after that.
+     */
+    private synchronized void flushCache(@NotNull Set<String> flushedKeys) throws SQLException {
+        if(cache == null || !cache.hasDirtyKeys())
+            return;
+
+        Map<String, String> updated = new LinkedHashMap<>();
+        Set<String> removed = new LinkedHashSet<>();
+        cache.drainDirty(updated, removed);
+        flushedKeys.addAll(updated.keySet());
+        flushedKeys.addAll(removed);
+
+        boolean written = false;
+        try {
+            TransactionManager.callInTransaction(writeConnection, () -> {
+                upsertAll(updated);
+
+                if(!removed.isEmpty())
+                    deleteAll(removed);
+
+                return null;
+            });
+            written = true;
+        } finally {
+            // any failure (not only SQL one) must keep the drained changes
+            if(!written)
+                cache.restoreDirty(flushedKeys);
+        }
+    }
+
 }
@@ -0,0 +1,261 @@
+package ru.soknight.lib.database;
+
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.soknight.lib.database.instrumentation.InstrumentedConnectionSource;
+import ru.soknight.lib.database.instrumentation.QueryInstrumentation;
+import ru.soknight.lib.database.model.DataEntry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The precompiled hot path statements of {@link DataRegistryManager}.
+ * <br>
+ * Statements are prepared once per JDBC connection and reused, saving is done
+ * by the native UPSERT statement of the current SQL dialect in a single round trip.
+ * The statements of the connections closed by the pool are dropped on the next preparation.
+ * <br>
+ * The statements are executed on the underlying JDBC connection, so if the connection source
+ * is instrumented, the operations are reported to its instrumentation directly.
+ */
+final class DataRegistryStatements {
+
+    private static final String TABLE_NAME = "sklibrary_data";
+
+    private final ConnectionSource connectionSource;
+    private final QueryInstrumentation instrumentation;
+    private final String selectValueStatement;
+    private final String selectExistsStatement;
+    private final String upsertStatement;
+    private final String deleteStatement;
+
+    // the statements reference their connection, so the entries are removed explicitly, see evictClosedConnections()
+    private final Map<Connection, Map<String, PreparedStatement>> preparedStatements;
+
+    private DataRegistryStatements(@NotNull ConnectionSource connectionSource, char quote, @NotNull String upsertStatement) {
+        String table = quote + TABLE_NAME + quote;
+        String key = quote + DataEntry.KEY_COLUMN + quote;
+        String value = quote + DataEntry.VALUE_COLUMN + quote;
+
+        this.connectionSource = connectionSource;
+        this.instrumentation = InstrumentedConnectionSource.getInstrumentation(connectionSource);
+        this.selectValueStatement = String.format("SELECT %s FROM %s WHERE %s = ?", value, table, key);
+        this.selectExistsStatement = String.format("SELECT 1 FROM %s WHERE %s = ?", table, key);
+        this.upsertStatement = upsertStatement;
+        this.deleteStatement = String.format("DELETE FROM %s WHERE %s = ?", table, key);
+        this.preparedStatements = new IdentityHashMap<>();
+    }
+
+    /**
+     * Create the statements for the SQL dialect of the connection source.
+     * @param connectionSource the connection source
+     * @return the statements or 'null' if the dialect hasn't a supported UPSERT statement
+     */
+    static @Nullable DataRegistryStatements create(@NotNull ConnectionSource connectionSource) {
+        return create(connectionSource, connectionSource.getDatabaseType().getDatabaseName());
+    }
+
+    /**
+     * Create the statements for the specified SQL dialect, so a compatible database
+     * (e.g. H2 in the MySQL mode) can run the statements of another dialect.
+     * @param connectionSource the connection source
+     * @param dialect the database name of the dialect
+     * @return the statements or 'null' if the dialect hasn't a supported UPSERT statement
+     */
+    static @Nullable DataRegistryStatements create(@NotNull ConnectionSource connectionSource, @Nullable String dialect) {
+        if(dialect == null)
+            return null;
+
+        switch(dialect.toLowerCase()) {
+            case "sqlite":
+            case "postgres":
+            case "postgresql":
+                return new DataRegistryStatements(connectionSource, '"', String.format(
+                        "INSERT INTO \"%1$s\" (\"%2$s\", \"%3$s\") VALUES (?, ?) ON CONFLICT (\"%2$s\") DO UPDATE SET \"%3$s\" = excluded.\"%3$s\"",
+                        TABLE_NAME, DataEntry.KEY_COLUMN, DataEntry.VALUE_COLUMN
+                ));
+            case "mysql":
+            case "mariadb":
+                return new DataRegistryStatements(connectionSource, '`', String.format(
+                        "INSERT INTO `%1$s` (`%2$s`, `%3$s`) VALUES (?, ?) ON DUPLICATE KEY UPDATE `%3$s` = VALUES(`%3$s`)",
+                        TABLE_NAME, DataEntry.KEY_COLUMN, DataEntry.VALUE_COLUMN
+                ));
+            default:
+                return null;
+        }
+    }
+
+    @Nullable String selectValue(@NotNull String key) throws SQLException {
+        return execute(selectValueStatement, "runQuery", statement -> {
+            statement.setString(1, key);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        });
+    }
+
+    boolean exists(@NotNull String key) throws SQLException {
+        return execute(selectExistsStatement, "runQuery", statement -> {
+            statement.setString(1, key);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        });
+    }
+
+    void upsert(@NotNull String key, @NotNull String value) throws SQLException {
+        execute(upsertStatement, "runUpdate", statement -> {
+            statement.setString(1, key);
+            statement.setString(2, value);
+            return statement.executeUpdate();
+        });
+    }
+
+    void upsertAll(@NotNull Map<String, String> entries) throws SQLException {
+        if(entries.isEmpty())
+            return;
+
+        execute(upsertStatement, "runBatch", statement -> {
+            for(Map.Entry<String, String> entry : entries.entrySet()) {
+                statement.setString(1, entry.getKey());
+                statement.setString(2, entry.getValue());
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+    }
+
+    void delete(@NotNull String key) throws SQLException {
+        execute(deleteStatement, "runUpdate", statement -> {
+            statement.setString(1, key);
+            return statement.executeUpdate();
+        });
+    }
+
+    void deleteAll(@NotNull Collection<String> keys) throws SQLException {
+        if(keys.isEmpty())
+            return;
+
+        // each key is a separate batched statement, so the bound variables limit isn't reached
+        execute(deleteStatement, "runBatch", statement -> {
+            for(String key : keys) {
+                statement.setString(1, key);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+    }
+
+    private <T> T execute(@NotNull String sql, @NotNull String operation, @NotNull StatementAction<T> action) throws SQLException {
+        DatabaseConnection databaseConnection = connectionSource.getReadWriteConnection(TABLE_NAME);
+        try {
+            PreparedStatement statement = prepare(databaseConnection.getUnderlyingConnection(), sql);
+            // prepared statements aren't thread-safe, but a connection may be shared between threads
+            synchronized (statement) {
+                return instrumentation != null
+                        ? executeTimed(statement, sql, operation, action)
+                        : action.execute(statement);
+            }
+        } finally {
+            connectionSource.releaseConnection(databaseConnection);
+        }
+    }
+
+    private <T> T executeTimed(
+            @NotNull PreparedStatement statement,
+            @NotNull String sql,
+            @NotNull String operation,
+            @NotNull StatementAction<T> action
+    ) throws SQLException {
+        long startedAt = System.nanoTime();
+        Throwable error = null;
+        try {
+            return action.execute(statement);
+        } catch (SQLException | RuntimeException ex) {
+            error = ex;
+            throw ex;
+        } finally {
+            instrumentation.onOperation(operation, sql, System.nanoTime() - startedAt, error);
+        }
+    }
+
+    private @NotNull PreparedStatement prepare(@NotNull Connection connection, @NotNull String sql) throws SQLException {
+        Map<String, PreparedStatement> statements;
+        synchronized (preparedStatements) {
+            statements = preparedStatements.get(connection);
+            if(statements == null) {
+                evictClosedConnections();
+                statements = new HashMap<>();
+                preparedStatements.put(connection, statements);
+            }
+        }
+
+        synchronized (statements) {
+            PreparedStatement statement = statements.get(sql);
+            if(statement == null || statement.isClosed()) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
+    }
+
+    /**
+     * Close all prepared statements, should be called when the registry is shutting down.
+     */
+    void close() {
+        synchronized (preparedStatements) {
+            preparedStatements.values().forEach(DataRegistryStatements::closeQuietly);
+            preparedStatements.clear();
+        }
+    }
+
+    private void evictClosedConnections() {
+        Iterator<Map.Entry<Connection, Map<String, PreparedStatement>>> iterator = preparedStatements.entrySet().iterator();
+        while(iterator.hasNext()) {
+            Map.Entry<Connection, Map<String, PreparedStatement>> entry = iterator.next();
+            if(isClosed(entry.getKey())) {
+                closeQuietly(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    private static boolean isClosed(@NotNull Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException ex) {
+            return true;
+        }
+    }
+
+    private static void closeQuietly(@NotNull Map<String, PreparedStatement> statements) {
+        synchronized (statements) {
+            for(PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            statements.clear();
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementAction<T> {
+
+        T execute(@NotNull PreparedStatement statement) throws SQLException;
+
+    }
+
+}
@@ -2,15 +2,25 @@ package ru.soknight.lib.database;
 
 import com.j256.ormlite.jdbc.JdbcConnectionSource;
 import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
 import com.j256.ormlite.table.TableUtils;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import ru.soknight.lib.configuration.Configuration;
+import ru.soknight.lib.database.connection.ConnectionPoolSettings;
+import ru.soknight.lib.database.connection.PooledConnectionSource;
+import ru.soknight.lib.database.connection.ReplicaRoutingConnectionSource;
 import ru.soknight.lib.database.credentials.AuthDatabaseCredentials;
 import ru.soknight.lib.database.credentials.DatabaseCredentials;
 import ru.soknight.lib.database.exception.*;
+import ru.soknight.lib.database.instrumentation.InstrumentedConnectionSource;
+import ru.soknight.lib.database.instrumentation.QueryInstrumentation;
+import ru.soknight.lib.database.instrumentation.QueryStatistics;
+import ru.soknight.lib.database.instrumentation.QueryStatisticsRegistry;
 import ru.soknight.lib.database.migration.MigrationManager;
 import ru.soknight.lib.database.migration.exception.*;
 import ru.soknight.lib.database.migration.runtime.MigrationDataConverter;
@@ -20,16 +30,38 @@ import ru.soknight.lib.tool.Validate;
 
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 @Getter
 public class Database {
 
+    private static final int MAX_TEMPORARY_CONNECTIONS = 4;
+    private static final String REPLICAS_SECTION_NAME = "replicas";
+    private static final long DEFAULT_REPLICA_RETRY_INTERVAL_MILLIS = 30_000L;
+
     private final Plugin plugin;
     private final Set<Class<?>> registeredTables;
+    @Getter(AccessLevel.NONE)
+    private final Set<Class<?>> independentTables;
 
+    private final DatabaseType databaseType;
     private final DatabaseCredentials credentials;
+    private final ConnectionPoolSettings connectionPoolSettings;
+    private final List<DatabaseCredentials> replicaCredentials;
+    private final long replicaRetryIntervalMillis;
+    private final QueryStatistics queryStatistics;
+    @Getter(AccessLevel.NONE)
+    private final List<QueryInstrumentation> instrumentations;
     private final ConnectionSource bootstrapConnection;
+    @Getter(AccessLevel.NONE)
+    private final ConnectionSource sharedConnection;
     private final MigrationManager migrationManager;
+    @Getter(AccessLevel.NONE)
+    private final CompletableFuture<Database> readyFuture;
+    @Getter(AccessLevel.NONE)
+    private final long bootstrapStartNanos;
+    private volatile long bootstrapTimeMillis;
 
     public Database(@NotNull Plugin plugin, @NotNull Configuration config) throws
             CredentialsParseException,
@@ -50,15 +82,18 @@ public class Database {
             SQLException,
             UnknownDatabaseTypeException
     {
+        this.bootstrapStartNanos = System.nanoTime();
         this.plugin = plugin;
         this.registeredTables = new LinkedHashSet<>();
+        this.independentTables = new HashSet<>();
+        this.readyFuture = new CompletableFuture<>();
 
         // check is database section exists
         if(databaseSection == null)
             throw new DatabaseBootstrapException("'database' section was not found in the main config!");
 
         String typeId = databaseSection.getString("type");
-        DatabaseType databaseType = DatabaseType.getById(typeId);
+        this.databaseType = DatabaseType.getById(typeId);
 
         // check is database connection configuration exists
         ConfigurationSection typeSection = databaseSection.getConfigurationSection(typeId);
@@ -66,56 +101,296 @@ public class Database {
             throw new DatabaseBootstrapException("'database." + typeId + "' section was not found in the main config!");
 
         this.credentials = DatabaseCredentials.parse(typeSection, databaseType);
+        this.connectionPoolSettings = ConnectionPoolSettings.parse(typeSection);
+        this.replicaCredentials = parseReplicaCredentials(typeSection);
+        this.replicaRetryIntervalMillis = typeSection.getLong("replica-retry-interval", DEFAULT_REPLICA_RETRY_INTERVAL_MILLIS);
+
+        // query instrumentation setup
+        this.queryStatistics = new QueryStatistics(plugin.getLogger(), databaseSection.getLong("slow-query-threshold", 0L));
+        this.instrumentations = new CopyOnWriteArrayList<>();
+        this.instrumentations.add(queryStatistics);
+        QueryStatisticsRegistry.register(plugin, queryStatistics);
 
         // loading the database JDBC driver
         credentials.loadDriver(plugin);
 
-        // trying to connect
-        this.bootstrapConnection = establishConnection();
+        // trying to connect, the schema is analyzed and migrated using the primary database only,
+        // since the replicas may lag behind it
+        ConnectionSource primaryConnection = establishRawConnection(credentials);
+        this.bootstrapConnection = InstrumentedConnectionSource.wrap(primaryConnection, this::reportOperation);
+        this.sharedConnection = isPoolingEnabled() ? establishSharedConnection(primaryConnection) : null;
 
         // migrations manager instance creation
         this.migrationManager = new MigrationManager(plugin, this);
     }
 
+    /**
+     * Complete the database bootstrap without performing migrations.
+     * @return this database
+     * @throws SQLException if the bootstrap has been failed, a migration error is passed as the cause
+     */
     public @NotNull Database complete() throws SQLException {
         try {
             return complete(false);
-        } catch (AbstractMigrationException ignored) {
-            return this;
+        } catch (AbstractMigrationException ex) {
+            throw new SQLException("Database bootstrap has been failed!", ex);
         }
     }
 
     public @NotNull Database complete(boolean performMigrations) throws AbstractMigrationException, SQLException {
         Validate.notNull(bootstrapConnection, "bootstrapConnection");
 
-        // analyzing database schema
-        boolean hasLastRevision = migrationManager.analyzeDatabaseSchema();
-        boolean migrationsRequired = performMigrations && !hasLastRevision;
-
-        // creating all registered tables
-        createTables(registeredTables);
+        try {
+            // fast path: the stored schema version is actual, so there is nothing to analyze, create or migrate
+            if(!migrationManager.isStoredSchemaVersionActual()) {
+                // analyzing database schema
+                boolean hasLastRevision = migrationManager.analyzeDatabaseSchema();
+                boolean migrationsRequired = performMigrations && !hasLastRevision;
+
+                // creating all registered tables
+                createRegisteredTables();
+
+                // perform migrations
+                if(migrationsRequired)
+                    migrationManager.runMigrations();
+            }
+
+            closeBootstrapConnection();
+        } catch (AbstractMigrationException | SQLException | RuntimeException ex) {
+            // the database is unusable, so the pool is closed as well
+            migrationManager.shutdown();
+            bootstrapConnection.closeQuietly();
+            if(sharedConnection != null)
+                sharedConnection.closeQuietly();
+
+            readyFuture.completeExceptionally(ex);
+            throw ex;
+        }
 
-        // perform migrations
-        if(migrationsRequired)
-            migrationManager.runMigrations();
+        this.bootstrapTimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - bootstrapStartNanos);
+        plugin.getLogger().info("Database bootstrap has been completed in " + bootstrapTimeMillis + " ms.");
 
-        // closing the bootstrap connection
-        bootstrapConnection.closeQuietly();
+        readyFuture.complete(this);
         return this;
     }
 
+    public @NotNull CompletableFuture<Database> completeAsync() {
+        return completeAsync(false);
+    }
+
+    /**
+     * Complete the database bootstrap (schema analysis, tables creation and migrations)
+     * in a separate thread, so it doesn't block the plugin enabling.
+     * <br>
+     * The tables registered by {@link #registerIndependentTables(Collection)} are created in parallel (except SQLite),
+     * see {@link #getBootstrapTimeMillis()} for the total bootstrap duration.
+     * Use {@link #isReady()}, {@link #whenReady(Consumer)} or {@link #whenReadySync(Consumer)} to gate the features which require the database.
+     * If the bootstrap fails, the bootstrap connection (or the pool) is closed.
+     * @param performMigrations should migrations be performed if the schema isn't actual
+     * @return the future which will be completed with this database or with the bootstrap error
+     */
+    public @NotNull CompletableFuture<Database> completeAsync(boolean performMigrations) {
+        CompletableFuture<Database> future = new CompletableFuture<>();
+
+        Thread bootstrapThread = new Thread(() -> {
+            try {
+                future.complete(complete(performMigrations));
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        }, "SKLibrary Database Bootstrap");
+        bootstrapThread.setDaemon(true);
+        bootstrapThread.start();
+
+        return future;
+    }
+
+    /**
+     * Check is the database bootstrap has been completed successfully.
+     * @return 'true' if the database is ready to use
+     */
+    public boolean isReady() {
+        return readyFuture.isDone() && !readyFuture.isCompletedExceptionally();
+    }
+
+    /**
+     * Register a callback which will be called when the database bootstrap is completed successfully.
+     * <br>
+     * If the database is already ready, the callback is called immediately in the current thread,
+     * otherwise it will be called in the bootstrap thread, so the Bukkit API mustn't be used there,
+     * see {@link #whenReadySync(Consumer)}.
+     * @param callback the callback to call
+     * @return the future of the callback
+     */
+    public @NotNull CompletableFuture<Void> whenReady(@NotNull Consumer<Database> callback) {
+        Validate.notNull(callback, "callback");
+        return readyFuture.thenAccept(callback);
+    }
+
+    /**
+     * Register a callback which will be called in the server main thread
+     * when the database bootstrap is completed successfully.
+     * @param callback the callback to call
+     * @return the future of the callback
+     */
+    public @NotNull CompletableFuture<Void> whenReadySync(@NotNull Consumer<Database> callback) {
+        Validate.notNull(callback, "callback");
+        return readyFuture.thenAcceptAsync(callback, task -> plugin.getServer().getScheduler().runTask(plugin, task));
+    }
+
+    /**
+     * Create the registered tables in the registration order, so the foreign keys can refer to the previous tables.
+     * <br>
+     * Each group of the tables registered by {@link #registerIndependentTables(Collection)}
+     * is created in parallel at the place of its registration.
+     */
+    private void createRegisteredTables() throws SQLException {
+        List<Class<?>> independentGroup = new ArrayList<>();
+        for(Class<?> tableClass : registeredTables) {
+            if(independentTables.contains(tableClass)) {
+                independentGroup.add(tableClass);
+                continue;
+            }
+
+            createTablesInParallel(independentGroup);
+            independentGroup.clear();
+
+            TableUtils.createTableIfNotExists(bootstrapConnection, tableClass);
+        }
+
+        createTablesInParallel(independentGroup);
+    }
+
+    /**
+     * Create the independent tables in parallel if it's possible.
+     * <br>
+     * Each worker creates the tables using its own temporary connection to the primary database,
+     * bypassing the pool, the read replicas and the instrumentation. SQLite allows only
+     * one writer at a time, so the tables are always created sequentially there.
+     */
+    private void createTablesInParallel(@NotNull Collection<Class<?>> tableClasses) throws SQLException {
+        int parallelism = getTableCreationParallelism(tableClasses.size());
+        if(parallelism < 2) {
+            for(Class<?> tableClass : tableClasses)
+                TableUtils.createTableIfNotExists(bootstrapConnection, tableClass);
+            return;
+        }
+
+        Queue<Class<?>> pendingTables = new ConcurrentLinkedQueue<>(tableClasses);
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "SKLibrary Table Creator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            CompletableFuture<?>[] workers = new CompletableFuture[parallelism];
+            for(int i = 0; i < parallelism; i++) {
+                workers[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        createPendingTables(pendingTables);
+                    } catch (SQLException ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, executorService);
+            }
+
+            CompletableFuture.allOf(workers).join();
+        } catch (CompletionException ex) {
+            if(ex.getCause() instanceof SQLException)
+                throw (SQLException) ex.getCause();
+            throw ex;
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void createPendingTables(@NotNull Queue<Class<?>> pendingTables) throws SQLException {
+        ConnectionSource connection = establishSingleConnection(credentials, credentials.getConnectionUrl(plugin));
+        try {
+            Class<?> tableClass;
+            while((tableClass = pendingTables.poll()) != null)
+                TableUtils.createTableIfNotExists(connection, tableClass);
+        } finally {
+            connection.closeQuietly();
+        }
+    }
+
+    private int getTableCreationParallelism(int tablesCount) {
+        if(databaseType == DatabaseType.SQLITE)
+            return 1;
+
+        return Math.min(tablesCount, MAX_TEMPORARY_CONNECTIONS);
+    }
+
+    private void closeBootstrapConnection() {
+        migrationManager.shutdown();
+
+        // the pool is shared and stays open
+        if(!isPoolingEnabled())
+            bootstrapConnection.closeQuietly();
+    }
+
+    /**
+     * Establish a connection to the database.
+     * <br>
+     * If the connection pool is enabled in the 'database.&lt;type&gt;.pool' section,
+     * the shared {@link PooledConnectionSource} will be returned instead of a new connection.
+     * If the read replicas are configured in the 'database.&lt;type&gt;.replicas' section,
+     * the read-only operations will be routed to them (see {@link ReplicaRoutingConnectionSource}).
+     * All operations of the returned connection source are reported to the registered instrumentations.
+     * @return the connection source
+     * @throws SQLException if the connection cannot be established
+     */
     public @NotNull ConnectionSource establishConnection() throws SQLException {
         Validate.notNull(credentials, "credentials");
 
+        if(sharedConnection != null)
+            return sharedConnection;
+
+        // all operations are reported to the registered instrumentations
+        return InstrumentedConnectionSource.wrap(routeToReplicas(establishRawConnection(credentials)), this::reportOperation);
+    }
+
+    // the pool is shared between the bootstrap connection and all connections established later
+    private @NotNull ConnectionSource establishSharedConnection(@NotNull ConnectionSource pool) throws SQLException {
+        if(replicaCredentials.isEmpty())
+            return bootstrapConnection;
+
+        return InstrumentedConnectionSource.wrap(routeToReplicas(pool), this::reportOperation);
+    }
+
+    private @NotNull ConnectionSource routeToReplicas(@NotNull ConnectionSource primary) throws SQLException {
+        if(replicaCredentials.isEmpty())
+            return primary;
+
+        List<ConnectionSource> replicas = new ArrayList<>();
+        try {
+            for(DatabaseCredentials replica : replicaCredentials)
+                replicas.add(establishRawConnection(replica));
+        } catch (SQLException ex) {
+            replicas.forEach(ConnectionSource::closeQuietly);
+            primary.closeQuietly();
+            throw ex;
+        }
+
+        return ReplicaRoutingConnectionSource.create(primary, replicas, replicaRetryIntervalMillis, plugin.getLogger());
+    }
+
+    private @NotNull ConnectionSource establishRawConnection(@NotNull DatabaseCredentials credentials) throws SQLException {
         String url = credentials.getConnectionUrl(plugin);
         if(!credentials.isAuthRequired())
-            return new JdbcConnectionSource(url);
+            return isPoolingEnabled()
+                    ? new PooledConnectionSource(url, null, null, connectionPoolSettings)
+                    : new JdbcConnectionSource(url);
 
         if(credentials instanceof AuthDatabaseCredentials) {
             AuthDatabaseCredentials authCredentials = (AuthDatabaseCredentials) credentials;
             String username = authCredentials.getUsername();
             String password = authCredentials.getPassword();
-            return new JdbcConnectionSource(url, username, password);
+            return isPoolingEnabled()
+                    ? new PooledConnectionSource(url, username, password, connectionPoolSettings)
+                    : new JdbcConnectionSource(url, username, password);
         }
 
         throw new IllegalArgumentException(
@@ -124,6 +399,144 @@ public class Database {
         );
     }
 
+    /**
+     * Establish a dedicated connection to the primary database which fetches the query results
+     * by chunks instead of loading the whole result set into the memory.
+     * <br>
+     * MySQL uses a server-side cursor ('useCursorFetch'), PostgreSQL uses a cursor as well,
+     * but only inside a transaction, so the auto-commit mode of the returned connection is disabled.
+     * SQLite steps through the result set natively, so no options are applied for it.
+     * <br>
+     * The returned connection source is neither pooled nor instrumented and must be closed by the caller.
+     * @param fetchSize the amount of rows fetched per round trip
+     * @return the streaming connection source
+     * @throws SQLException if the connection cannot be established
+     */
+    public @NotNull ConnectionSource establishStreamingConnection(int fetchSize) throws SQLException {
+        Validate.notNull(credentials, "credentials");
+        Validate.isTrue(fetchSize > 0, "fetchSize must be positive");
+
+        String url = credentials.getConnectionUrl(plugin);
+        switch(databaseType) {
+            case MYSQL:
+                url = appendUrlParameters(url, "useCursorFetch=true&defaultFetchSize=" + fetchSize);
+                break;
+            case POSTGRESQL:
+                url = appendUrlParameters(url, "defaultRowFetchSize=" + fetchSize);
+                break;
+            default:
+                break;
+        }
+
+        ConnectionSource connectionSource = establishSingleConnection(credentials, url);
+        try {
+            if(databaseType == DatabaseType.POSTGRESQL) {
+                DatabaseConnection connection = connectionSource.getReadWriteConnection(null);
+                connection.setAutoCommit(false);
+                connectionSource.releaseConnection(connection);
+            }
+        } catch (SQLException ex) {
+            connectionSource.closeQuietly();
+            throw ex;
+        }
+
+        return connectionSource;
+    }
+
+    private @NotNull ConnectionSource establishSingleConnection(@NotNull DatabaseCredentials credentials, @NotNull String url) throws SQLException {
+        if(!credentials.isAuthRequired())
+            return new JdbcConnectionSource(url);
+
+        if(credentials instanceof AuthDatabaseCredentials) {
+            AuthDatabaseCredentials authCredentials = (AuthDatabaseCredentials) credentials;
+            return new JdbcConnectionSource(url, authCredentials.getUsername(), authCredentials.getPassword());
+        }
+
+        throw new IllegalArgumentException(
+                "Credentials auth is required, but it is not an " +
+                "instance of the AuthDatabaseCredentials!"
+        );
+    }
+
+    private static @NotNull String appendUrlParameters(@NotNull String url, @NotNull String parameters) {
+        return url + (url.indexOf('?') != -1 ? '&' : '?') + parameters;
+    }
+
+    /**
+     * Register an additional instrumentation which will be notified about each database operation.
+     * <br>
+     * The built-in {@link QueryStatistics} is always registered, the slow operation threshold
+     * can be specified in milliseconds using the 'database.slow-query-threshold' option.
+     * @param instrumentation the instrumentation to register
+     * @return this database
+     */
+    public @NotNull Database addInstrumentation(@NotNull QueryInstrumentation instrumentation) {
+        Validate.notNull(instrumentation, "instrumentation");
+        instrumentations.add(instrumentation);
+        return this;
+    }
+
+    private void reportOperation(@NotNull String operation, @NotNull String statement, long durationNanos, Throwable error) {
+        for(QueryInstrumentation instrumentation : instrumentations) {
+            try {
+                instrumentation.onOperation(operation, statement, durationNanos, error);
+            } catch (RuntimeException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Parse the read replicas credentials placed in the 'replicas' child section of the 'database.&lt;type&gt;' section.
+     * <br>
+     * Each replica is a named section which overrides the primary credentials,
+     * so only the differing values (e.g. 'host') must be specified.
+     */
+    private @NotNull List<DatabaseCredentials> parseReplicaCredentials(@NotNull ConfigurationSection typeSection)
+            throws CredentialsParseException
+    {
+        ConfigurationSection replicasSection = typeSection.getConfigurationSection(REPLICAS_SECTION_NAME);
+        if(replicasSection == null || !credentials.isRemoteDatabase())
+            return Collections.emptyList();
+
+        List<DatabaseCredentials> replicas = new ArrayList<>();
+        for(String replicaId : replicasSection.getKeys(false)) {
+            ConfigurationSection replicaSection = replicasSection.getConfigurationSection(replicaId);
+            if(replicaSection == null)
+                continue;
+
+            MemoryConfiguration mergedSection = new MemoryConfiguration();
+            typeSection.getValues(false).forEach((key, value) -> {
+                if(!(value instanceof ConfigurationSection))
+                    mergedSection.set(key, value);
+            });
+            replicaSection.getValues(false).forEach(mergedSection::set);
+
+            replicas.add(DatabaseCredentials.parse(mergedSection, databaseType));
+        }
+        return Collections.unmodifiableList(replicas);
+    }
+
+    public boolean hasReplicas() {
+        return !replicaCredentials.isEmpty();
+    }
+
+    public boolean isPoolingEnabled() {
+        return connectionPoolSettings != null;
+    }
+
+    /**
+     * Close the shared connection pool if it's enabled and unregister the query statistics.
+     * <br>
+     * Should be called when the plugin is disabling.
+     */
+    public void shutdown() {
+        QueryStatisticsRegistry.unregister(plugin);
+        migrationManager.shutdown();
+
+        if(sharedConnection != null)
+            sharedConnection.closeQuietly();
+    }
+
     public @NotNull Database setActualSchemaVersion(int version) {
         migrationManager.setActualSchemaVersion(version);
         return this;
@@ -134,6 +547,16 @@ public class Database {
         return this;
     }
 
+    public @NotNull Database setMigrationStreamingChunkSize(int streamingChunkSize) {
+        migrationManager.setStreamingChunkSize(streamingChunkSize);
+        return this;
+    }
+
+    public @NotNull Database setMigrationStatementTimingsEnabled(boolean statementTimingsEnabled) {
+        migrationManager.setStatementTimingsEnabled(statementTimingsEnabled);
+        return this;
+    }
+
     public @NotNull Database registerDataConverter(@NotNull String migrationPath, @NotNull MigrationDataConverter<?, ?> dataConverter) {
         migrationManager.registerDataConverter(migrationPath, dataConverter);
         return this;
@@ -152,6 +575,7 @@ public class Database {
     public @NotNull Database registerTable(@NotNull Class<?> tableClass) {
         Validate.notNull(tableClass, "tableClass");
         registeredTables.add(tableClass);
+        independentTables.remove(tableClass);
         return this;
     }
 
@@ -163,18 +587,40 @@ public class Database {
     public @NotNull Database registerTables(@NotNull Collection<Class<?>> tableClasses) {
         Validate.notEmpty(tableClasses, "tableClasses");
         registeredTables.addAll(tableClasses);
+        independentTables.removeAll(tableClasses);
+        return this;
+    }
+
+    /**
+     * Register the group of tables which don't refer to each other, so they can be created in parallel.
+     * <br>
+     * The group is created after the previously registered tables and before the next ones,
+     * the tables of the group mustn't refer to each other by the foreign keys.
+     * @param tableClasses the tables of the group
+     * @return this database
+     */
+    public @NotNull Database registerIndependentTables(@NotNull Collection<Class<?>> tableClasses) {
+        Validate.notEmpty(tableClasses, "tableClasses");
+        for(Class<?> tableClass : tableClasses) {
+            // re-registering moves the table to the group position
+            registeredTables.remove(tableClass);
+            registeredTables.add(tableClass);
+        }
+        independentTables.addAll(tableClasses);
         return this;
     }
 
     public @NotNull Database unregisterTable(@NotNull Class<?> tableClass) {
         Validate.notNull(tableClass, "tableClass");
         registeredTables.remove(tableClass);
+        independentTables.remove(tableClass);
         return this;
     }
 
     public @NotNull Database unregisterTables(@NotNull Collection<Class<?>> tableClasses) {
         Validate.notEmpty(tableClasses, "tableClasses");
         registeredTables.removeAll(tableClasses);
+        independentTables.removeAll(tableClasses);
         return this;
     }
 
@@ -205,7 +651,6 @@ public class Database {
 
         for(Class<?> daoClass : daoClasses)
             TableUtils.createTableIfNotExists(bootstrapConnection, daoClass);
-
         return this;
     }
 
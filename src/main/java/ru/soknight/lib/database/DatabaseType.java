@@ -6,6 +6,7 @@ import lombok.Getter;
 import ru.soknight.lib.database.credentials.DatabaseCredentials;
 import ru.soknight.lib.database.credentials.remote.MySQLDatabaseCredentials;
 import ru.soknight.lib.database.credentials.remote.PostgreSQLDatabaseCredentials;
+import ru.soknight.lib.database.credentials.local.H2DatabaseCredentials;
 import ru.soknight.lib.database.credentials.local.SQLiteDatabaseCredentials;
 import ru.soknight.lib.database.exception.UnknownDatabaseTypeException;
 
@@ -17,7 +18,8 @@ public enum DatabaseType {
 
     SQLITE("sqlite", "SQLite", SQLiteDatabaseCredentials.class),
     MYSQL("mysql", "MySQL", MySQLDatabaseCredentials.class),
-    POSTGRESQL("postgresql", "PostgreSQL", PostgreSQLDatabaseCredentials.class);
+    POSTGRESQL("postgresql", "PostgreSQL", PostgreSQLDatabaseCredentials.class),
+    H2("h2", "H2", H2DatabaseCredentials.class);
 
     private final String id;
     private final String name;
@@ -0,0 +1,93 @@
+package ru.soknight.lib.database.connection;
+
+import lombok.Getter;
+import org.bukkit.configuration.ConfigurationSection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.soknight.lib.tool.Validate;
+
+/**
+ * Represents the connection pool configuration placed in the 'pool' child section of the 'database.&lt;type&gt;' section.
+ * <br>
+ * Options:
+ * <ul>
+ *     <li>'enabled' - should the pool be used, 'false' by default;</li>
+ *     <li>'warm-up-size' - the amount of connections opened on startup, the pool doesn't keep this amount later;</li>
+ *     <li>'max-size' - the max amount of connections used at the same time;</li>
+ *     <li>'max-connection-age' - the max age of a connection in milliseconds, older free connections are closed
+ *     and reopened on demand, 0 disables the limit (it isn't an idle timeout, used connections age too);</li>
+ *     <li>'acquire-timeout' - the max time to wait for a free connection in milliseconds, 0 means no timeout;</li>
+ *     <li>'validation-query' - the query which checks a connection before it's used (e.g. 'SELECT 1').</li>
+ * </ul>
+ */
+@Getter
+public final class ConnectionPoolSettings {
+
+    public static final String SECTION_NAME = "pool";
+
+    public static final int DEFAULT_WARM_UP_SIZE = 1;
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final long DEFAULT_MAX_CONNECTION_AGE_MILLIS = 600_000L;
+    public static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = 5_000L;
+
+    private final int warmUpSize;
+    private final int maxSize;
+    private final long maxConnectionAgeMillis;
+    private final long acquireTimeoutMillis;
+    private final @Nullable String validationQuery;
+
+    public ConnectionPoolSettings(
+            int warmUpSize,
+            int maxSize,
+            long maxConnectionAgeMillis,
+            long acquireTimeoutMillis,
+            @Nullable String validationQuery
+    ) {
+        Validate.isTrue(warmUpSize >= 0, "Pool warm-up size cannot be negative!");
+        Validate.isTrue(maxSize >= 1, "Pool max size must be positive!");
+        Validate.isTrue(warmUpSize <= maxSize, "Pool warm-up size cannot be greater than max size!");
+
+        this.warmUpSize = warmUpSize;
+        this.maxSize = maxSize;
+        this.maxConnectionAgeMillis = Math.max(maxConnectionAgeMillis, 0L);
+        this.acquireTimeoutMillis = Math.max(acquireTimeoutMillis, 0L);
+        this.validationQuery = validationQuery != null && !validationQuery.isEmpty() ? validationQuery : null;
+    }
+
+    /**
+     * Try to parse the pool settings from a database type section
+     * @param typeSection the 'database.&lt;type&gt;' section which contains the 'pool' child section
+     * @return the parsed settings or 'null' if pooling isn't configured or disabled
+     */
+    public static @Nullable ConnectionPoolSettings parse(@NotNull ConfigurationSection typeSection) {
+        Validate.notNull(typeSection, "typeSection");
+
+        ConfigurationSection poolSection = typeSection.getConfigurationSection(SECTION_NAME);
+        if(poolSection == null || !poolSection.getBoolean("enabled", false))
+            return null;
+
+        return new ConnectionPoolSettings(
+                poolSection.getInt("warm-up-size", DEFAULT_WARM_UP_SIZE),
+                poolSection.getInt("max-size", DEFAULT_MAX_SIZE),
+                poolSection.getLong("max-connection-age", DEFAULT_MAX_CONNECTION_AGE_MILLIS),
+                poolSection.getLong("acquire-timeout", DEFAULT_ACQUIRE_TIMEOUT_MILLIS),
+                poolSection.getString("validation-query")
+        );
+    }
+
+    public boolean hasValidationQuery() {
+        return validationQuery != null;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "ConnectionPoolSettings{" +
+                "warmUpSize=" + warmUpSize +
+                ", maxSize=" + maxSize +
+                ", maxConnectionAgeMillis=" + maxConnectionAgeMillis +
+                ", acquireTimeoutMillis=" + acquireTimeoutMillis +
+                ", validationQuery='" + validationQuery + '\'' +
+                '}';
+    }
+
+}
@@ -0,0 +1,144 @@
+package ru.soknight.lib.database.connection;
+
+import com.j256.ormlite.jdbc.JdbcPooledConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.soknight.lib.tool.Validate;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ORMLite pooled connection source with a bounded size, pre-warmed connections,
+ * a max connection age, an optional validation query and an acquire timeout.
+ * <br>
+ * The pool doesn't evict idle connections and doesn't keep a min amount of them,
+ * the free connections are closed only when they exceed the max connection age.
+ */
+public class PooledConnectionSource extends JdbcPooledConnectionSource {
+
+    private final ConnectionPoolSettings settings;
+    private final Semaphore permits;
+
+    public PooledConnectionSource(
+            @NotNull String url,
+            @Nullable String username,
+            @Nullable String password,
+            @NotNull ConnectionPoolSettings settings
+    ) throws SQLException {
+        super(url, username, password);
+        Validate.notNull(settings, "settings");
+
+        this.settings = settings;
+        this.permits = new Semaphore(settings.getMaxSize(), true);
+
+        setMaxConnectionsFree(settings.getMaxSize());
+        if(settings.getMaxConnectionAgeMillis() > 0L) {
+            setMaxConnectionAgeMillis(settings.getMaxConnectionAgeMillis());
+            setCheckConnectionsEveryMillis(Math.max(settings.getMaxConnectionAgeMillis() / 2L, 1_000L));
+        }
+        setTestBeforeGet(!settings.hasValidationQuery());
+
+        warmUp();
+    }
+
+    public @NotNull ConnectionPoolSettings getSettings() {
+        return settings;
+    }
+
+    @Override
+    public DatabaseConnection getReadOnlyConnection(String tableName) throws SQLException {
+        return getReadWriteConnection(tableName);
+    }
+
+    @Override
+    public DatabaseConnection getReadWriteConnection(String tableName) throws SQLException {
+        // the saved (transactional) connection is already counted
+        if(getSavedConnection() != null)
+            return super.getReadWriteConnection(tableName);
+
+        acquirePermit();
+        try {
+            // all free connections may be broken (e.g. after a network failure), so the last attempt opens a new one
+            for(int attempt = 0; attempt <= settings.getMaxSize(); attempt++) {
+                DatabaseConnection connection = super.getReadWriteConnection(tableName);
+                if(isValid(connection))
+                    return connection;
+
+                // dropping the broken connection and trying to get another one
+                connection.closeQuietly();
+                super.releaseConnection(connection);
+            }
+
+            throw new SQLException("Couldn't get a pooled connection which passes the validation query!");
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void releaseConnection(DatabaseConnection connection) throws SQLException {
+        if(isSavedConnection(connection)) {
+            super.releaseConnection(connection);
+            return;
+        }
+
+        try {
+            super.releaseConnection(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        try {
+            long timeout = settings.getAcquireTimeoutMillis();
+            if(timeout == 0L) {
+                permits.acquire();
+            } else if(!permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException(String.format(
+                        "Couldn't acquire a pooled connection in %d ms (max pool size is %d)!",
+                        timeout, settings.getMaxSize()
+                ));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection!", ex);
+        }
+    }
+
+    private boolean isValid(@NotNull DatabaseConnection connection) {
+        String validationQuery = settings.getValidationQuery();
+        if(validationQuery == null)
+            return true;
+
+        try {
+            connection.executeStatement(validationQuery, DatabaseConnection.DEFAULT_RESULT_FLAGS);
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private void warmUp() throws SQLException {
+        int warmUpSize = settings.getWarmUpSize();
+        if(warmUpSize == 0)
+            return;
+
+        List<DatabaseConnection> connections = new ArrayList<>(warmUpSize);
+        try {
+            for(int i = 0; i < warmUpSize; i++)
+                connections.add(getReadWriteConnection(null));
+        } finally {
+            for(DatabaseConnection connection : connections)
+                releaseConnection(connection);
+        }
+    }
+
+}
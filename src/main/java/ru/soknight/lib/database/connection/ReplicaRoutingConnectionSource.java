@@ -0,0 +1,251 @@
+package ru.soknight.lib.database.connection;
+
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import org.jetbrains.annotations.NotNull;
+import ru.soknight.lib.tool.Validate;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * The factory of connection sources which route read-only operations to the read replicas.
+ * <br>
+ * Read-only connections are taken from the replicas in the round-robin order, all other operations
+ * (writes, transactions and reads inside transactions) are performed by the primary connection source.
+ * A replica which failed to provide a valid connection is skipped until the retry interval passes,
+ * the interval is doubled after each next failure (up to 16 times).
+ * The replica connections are validated with a ping at most once per 5 seconds
+ * and always before a failed replica is used again. If all replicas are unavailable the reads are performed by the primary.
+ * <br>
+ * The same replica connection may be handed out several times (e.g. a non-pooled replica),
+ * so its replica is remembered until the last holder releases it.
+ * <br>
+ * A proxy is used instead of the delegating implementation, so the routing
+ * doesn't depend on the exact set of methods of the ORMLite interface.
+ */
+public final class ReplicaRoutingConnectionSource {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long VALIDATION_INTERVAL_MILLIS = 5_000L;
+    private static final int MAX_BACKOFF_MULTIPLIER = 16;
+
+    private ReplicaRoutingConnectionSource() {}
+
+    /**
+     * Create a routing connection source
+     * @param primary the primary connection source for writes
+     * @param replicas the replica connection sources for reads
+     * @param retryIntervalMillis the time to skip a failed replica for
+     * @param logger the logger to report replica failures to
+     * @return the routing connection source
+     */
+    public static @NotNull ConnectionSource create(
+            @NotNull ConnectionSource primary,
+            @NotNull List<ConnectionSource> replicas,
+            long retryIntervalMillis,
+            @NotNull Logger logger
+    ) {
+        Validate.notNull(primary, "primary");
+        Validate.notEmpty(replicas, "replicas");
+        Validate.notNull(logger, "logger");
+
+        RoutingHandler handler = new RoutingHandler(primary, replicas, Math.max(retryIntervalMillis, 0L), logger);
+        return (ConnectionSource) Proxy.newProxyInstance(
+                primary.getClass().getClassLoader(),
+                new Class<?>[] { ConnectionSource.class },
+                handler
+        );
+    }
+
+    private static final class RoutingHandler implements InvocationHandler {
+
+        private final ConnectionSource primary;
+        private final List<Replica> replicas;
+        private final long retryIntervalMillis;
+        private final Logger logger;
+
+        private final AtomicInteger nextReplica;
+        private final Map<DatabaseConnection, Lease> connectionLeases;
+
+        private RoutingHandler(
+                @NotNull ConnectionSource primary,
+                @NotNull List<ConnectionSource> replicas,
+                long retryIntervalMillis,
+                @NotNull Logger logger
+        ) {
+            this.primary = primary;
+            this.replicas = new ArrayList<>();
+            for(int i = 0; i < replicas.size(); i++)
+                this.replicas.add(new Replica(i + 1, replicas.get(i)));
+
+            this.retryIntervalMillis = retryIntervalMillis;
+            this.logger = logger;
+            this.nextReplica = new AtomicInteger();
+            this.connectionLeases = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch(method.getName()) {
+                case "equals":
+                    if(args != null && args.length == 1)
+                        return proxy == args[0];
+                    break;
+                case "hashCode":
+                    if(args == null || args.length == 0)
+                        return System.identityHashCode(proxy);
+                    break;
+                case "toString":
+                    if(args == null || args.length == 0)
+                        return "ReplicaRouting{primary=" + primary + ", replicas=" + replicas.size() + "}";
+                    break;
+                case "getReadOnlyConnection":
+                    if(args != null && args.length == 1)
+                        return getReadOnlyConnection((String) args[0]);
+                    break;
+                case "releaseConnection":
+                    if(args != null && args.length == 1 && args[0] instanceof DatabaseConnection) {
+                        ConnectionSource owner = releaseLease((DatabaseConnection) args[0]);
+                        if(owner != null) {
+                            owner.releaseConnection((DatabaseConnection) args[0]);
+                            return null;
+                        }
+                    }
+                    break;
+                case "close":
+                case "closeQuietly":
+                    for(Replica replica : replicas)
+                        replica.source.closeQuietly();
+                    break;
+            }
+
+            try {
+                return method.invoke(primary, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        private @NotNull DatabaseConnection getReadOnlyConnection(String tableName) throws SQLException {
+            // reads inside a transaction must see its changes
+            if(primary.getSpecialConnection(tableName) != null)
+                return primary.getReadOnlyConnection(tableName);
+
+            long now = System.currentTimeMillis();
+            for(int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get((nextReplica.getAndIncrement() & Integer.MAX_VALUE) % replicas.size());
+                if(replica.unavailableUntil > now)
+                    continue;
+
+                DatabaseConnection connection = null;
+                try {
+                    connection = replica.source.getReadOnlyConnection(tableName);
+                    validate(replica, connection, now);
+
+                    if(replica.failures != 0) {
+                        replica.failures = 0;
+                        replica.unavailableUntil = 0L;
+                        logger.info("Database replica #" + replica.id + " is available again.");
+                    }
+
+                    acquireLease(connection, replica.source);
+                    return connection;
+                } catch (SQLException ex) {
+                    if(connection != null)
+                        releaseQuietly(replica.source, connection);
+
+                    long backoffMillis = retryIntervalMillis * Math.min(1L << Math.min(replica.failures, 30), MAX_BACKOFF_MULTIPLIER);
+                    replica.failures++;
+                    replica.lastValidatedAt = 0L;
+                    replica.unavailableUntil = now + backoffMillis;
+                    logger.warning("Database replica #" + replica.id + " is unavailable, skipping it for "
+                            + backoffMillis + " ms: " + ex.getMessage());
+                }
+            }
+
+            // all replicas are unavailable, the primary can serve the reads too
+            return primary.getReadOnlyConnection(tableName);
+        }
+
+        private void validate(@NotNull Replica replica, @NotNull DatabaseConnection connection, long now) throws SQLException {
+            if(connection.isClosed())
+                throw new SQLException("The replica connection has been closed.");
+
+            // a failed replica is always validated before the readmission
+            if(replica.failures == 0 && now - replica.lastValidatedAt < VALIDATION_INTERVAL_MILLIS)
+                return;
+
+            Object underlyingConnection = connection.getUnderlyingConnection();
+            if(underlyingConnection instanceof Connection && !((Connection) underlyingConnection).isValid(VALIDATION_TIMEOUT_SECONDS))
+                throw new SQLException("The replica hasn't responded to the ping in " + VALIDATION_TIMEOUT_SECONDS + " s.");
+
+            replica.lastValidatedAt = now;
+        }
+
+        private void acquireLease(@NotNull DatabaseConnection connection, @NotNull ConnectionSource owner) {
+            connectionLeases.compute(connection, (key, lease) -> {
+                if(lease == null)
+                    return new Lease(owner);
+
+                lease.holders++;
+                return lease;
+            });
+        }
+
+        private ConnectionSource releaseLease(@NotNull DatabaseConnection connection) {
+            ConnectionSource[] owner = new ConnectionSource[1];
+            connectionLeases.computeIfPresent(connection, (key, lease) -> {
+                owner[0] = lease.owner;
+                return --lease.holders > 0 ? lease : null;
+            });
+            return owner[0];
+        }
+
+        private static void releaseQuietly(@NotNull ConnectionSource source, @NotNull DatabaseConnection connection) {
+            try {
+                source.releaseConnection(connection);
+            } catch (SQLException ignored) {
+            }
+        }
+
+    }
+
+    private static final class Lease {
+
+        private final ConnectionSource owner;
+        private int holders;
+
+        private Lease(@NotNull ConnectionSource owner) {
+            this.owner = owner;
+            this.holders = 1;
+        }
+
+    }
+
+    private static final class Replica {
+
+        private final int id;
+        private final ConnectionSource source;
+        private volatile int failures;
+        private volatile long unavailableUntil;
+        private volatile long lastValidatedAt;
+
+        private Replica(int id, @NotNull ConnectionSource source) {
+            this.id = id;
+            this.source = source;
+        }
+
+    }
+
+}
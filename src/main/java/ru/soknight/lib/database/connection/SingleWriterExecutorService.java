@@ -0,0 +1,278 @@
+package ru.soknight.lib.database.connection;
+
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.ConnectionSource;
+import org.jetbrains.annotations.NotNull;
+import ru.soknight.lib.database.instrumentation.InstrumentedConnectionSource;
+import ru.soknight.lib.database.instrumentation.QueryInstrumentation;
+import ru.soknight.lib.executable.quiet.DeferredCompletionRunnable;
+import ru.soknight.lib.tool.Validate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The executor with a dedicated writer thread for databases which allow only one writer at a time (SQLite).
+ * <br>
+ * All queued tasks are executed by the single thread, so they never compete for the write lock.
+ * The tasks accumulated while the previous group was running are executed in one transaction
+ * (group commit), so the database syncs the journal once per group instead of once per task.
+ * Each task runs in its own savepoint, so a failed task doesn't roll back the others.
+ * <br>
+ * The {@link DeferredCompletionRunnable} tasks are completed only after the group has been committed.
+ * If the commit fails, nothing is written and all tasks of the group are completed exceptionally,
+ * they are never executed again.
+ * <br>
+ * The writer should use its own connection (see {@link #openWriterConnection(ConnectionSource)}),
+ * otherwise the reads on the same connection see the rows of an uncommitted group and wait for it.
+ */
+public final class SingleWriterExecutorService extends AbstractExecutorService {
+
+    private static final int MAX_GROUP_SIZE = 256;
+    private static final long POLL_TIMEOUT_MILLIS = 100L;
+
+    private final ConnectionSource connectionSource;
+    private final Logger logger;
+    private final BlockingQueue<Runnable> queue;
+    private final CountDownLatch termination;
+    private final Thread writerThread;
+    private final Object lock;
+
+    private volatile boolean shutdown;
+
+    public SingleWriterExecutorService(@NotNull ConnectionSource connectionSource, @NotNull Logger logger) {
+        Validate.notNull(connectionSource, "connectionSource");
+        Validate.notNull(logger, "logger");
+
+        this.connectionSource = connectionSource;
+        this.logger = logger;
+        this.queue = new LinkedBlockingQueue<>();
+        this.termination = new CountDownLatch(1);
+        this.lock = new Object();
+
+        this.writerThread = new Thread(this::processQueue, "SKLibrary Database Writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Check is the database of the connection source allows only one writer at a time.
+     * @param connectionSource the connection source
+     * @return 'true' if the writes should be serialized by this executor
+     */
+    public static boolean isRequired(@NotNull ConnectionSource connectionSource) {
+        return "sqlite".equalsIgnoreCase(connectionSource.getDatabaseType().getDatabaseName());
+    }
+
+    /**
+     * Get a connection source for the writer which doesn't share its connection with the readers.
+     * <br>
+     * A plain JDBC connection source has the only connection for all threads, so a new one is opened
+     * with the same URL (and the same instrumentation). Other sources (e.g. pools) already give
+     * a separate connection to each thread, so they are returned as is. An in-memory database
+     * isn't shared between connections, so its source is returned as is too.
+     * With the WAL journal mode the readers aren't blocked by the writer at all.
+     * @param connectionSource the connection source of the readers
+     * @return a new connection source which must be closed by the caller or the same source
+     * @throws SQLException if the connection cannot be established
+     */
+    public static @NotNull ConnectionSource openWriterConnection(@NotNull ConnectionSource connectionSource) throws SQLException {
+        Validate.notNull(connectionSource, "connectionSource");
+
+        ConnectionSource original = InstrumentedConnectionSource.unwrap(connectionSource);
+        if(original.getClass() != JdbcConnectionSource.class)
+            return connectionSource;
+
+        JdbcConnectionSource jdbcSource = (JdbcConnectionSource) original;
+        String url = jdbcSource.getUrl();
+        if(url.contains(":memory:") || url.contains("mode=memory"))
+            return connectionSource;
+
+        ConnectionSource writerConnection = new JdbcConnectionSource(url, jdbcSource.getDatabaseType());
+
+        QueryInstrumentation instrumentation = InstrumentedConnectionSource.getInstrumentation(connectionSource);
+        return instrumentation != null ? InstrumentedConnectionSource.wrap(writerConnection, instrumentation) : writerConnection;
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        Validate.notNull(command, "command");
+
+        synchronized (lock) {
+            if(shutdown)
+                throw new RejectedExecutionException("The database writer has been shut down!");
+
+            queue.add(command);
+        }
+    }
+
+    private void processQueue() {
+        List<Runnable> group = new ArrayList<>();
+        try {
+            while(!shutdown || !queue.isEmpty()) {
+                Runnable first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if(first == null)
+                    continue;
+
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP_SIZE - 1);
+                try {
+                    runGroup(group);
+                } catch (Throwable ex) {
+                    logger.log(Level.SEVERE, "An unexpected error occurred in the database writer", ex);
+                } finally {
+                    group.clear();
+                }
+            }
+        } catch (InterruptedException ignored) {
+        } finally {
+            termination.countDown();
+        }
+    }
+
+    private void runGroup(@NotNull List<Runnable> group) {
+        // a single task doesn't need the group transaction
+        if(group.size() == 1) {
+            Runnable task = group.get(0);
+            try {
+                complete(task, execute(task));
+            } catch (Exception ex) {
+                fail(task, unwrapTaskError(ex));
+            }
+            return;
+        }
+
+        Object[] results = new Object[group.size()];
+        Throwable[] errors = new Throwable[group.size()];
+
+        try {
+            TransactionManager.callInTransaction(connectionSource, () -> {
+                for(int i = 0; i < group.size(); i++) {
+                    Runnable task = group.get(i);
+                    try {
+                        // the nested transaction is a savepoint, it's rolled back if the task fails
+                        results[i] = TransactionManager.callInTransaction(connectionSource, () -> execute(task));
+                    } catch (SQLException ex) {
+                        errors[i] = unwrapTaskError(ex);
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException ex) {
+            logger.log(Level.WARNING, "Failed to commit a group of " + group.size() + " database writes", ex);
+            for(int i = 0; i < group.size(); i++) {
+                if(errors[i] != null) {
+                    fail(group.get(i), errors[i]);
+                } else {
+                    abort(group.get(i), ex);
+                }
+            }
+            return;
+        }
+
+        for(int i = 0; i < group.size(); i++) {
+            if(errors[i] != null) {
+                fail(group.get(i), errors[i]);
+            } else {
+                complete(group.get(i), results[i]);
+            }
+        }
+    }
+
+    private static Object execute(@NotNull Runnable task) throws Exception {
+        try {
+            if(task instanceof DeferredCompletionRunnable)
+                return ((DeferredCompletionRunnable) task).execute();
+
+            task.run();
+            return null;
+        } catch (SQLException ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new TaskFailure(ex);
+        }
+    }
+
+    private static @NotNull Throwable unwrapTaskError(@NotNull Exception error) {
+        if(error instanceof TaskFailure)
+            return error.getCause();
+
+        // ORMLite wraps non-SQL exceptions of the transaction callable
+        if(error.getCause() instanceof TaskFailure)
+            return error.getCause().getCause();
+
+        return error;
+    }
+
+    private void complete(@NotNull Runnable task, Object result) {
+        if(task instanceof DeferredCompletionRunnable)
+            ((DeferredCompletionRunnable) task).complete(result);
+    }
+
+    private void fail(@NotNull Runnable task, @NotNull Throwable error) {
+        if(task instanceof DeferredCompletionRunnable) {
+            ((DeferredCompletionRunnable) task).fail(error);
+        } else {
+            logger.log(Level.SEVERE, "An unexpected error occurred in the database writer", error);
+        }
+    }
+
+    private void abort(@NotNull Runnable task, @NotNull Throwable error) {
+        if(task instanceof DeferredCompletionRunnable)
+            ((DeferredCompletionRunnable) task).abort(error);
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (lock) {
+            this.shutdown = true;
+        }
+    }
+
+    @Override
+    public @NotNull List<Runnable> shutdownNow() {
+        shutdown();
+
+        List<Runnable> pendingTasks = new ArrayList<>();
+        queue.drainTo(pendingTasks);
+        writerThread.interrupt();
+        return pendingTasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return termination.getCount() == 0L;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return termination.await(timeout, unit);
+    }
+
+    /**
+     * The wrapper of a non-SQL task error, so it's passed through the ORMLite transaction
+     */
+    private static final class TaskFailure extends Exception {
+
+        private TaskFailure(@NotNull Throwable cause) {
+            super(cause);
+        }
+
+    }
+
+}
@@ -54,6 +54,10 @@ final class CredentialsParser {
                 throw new CredentialsParseException("Couldn't make field '" + fieldName + "' accessible!", databaseType);
             }
 
+            // YAML turns the unquoted values like 'off' into booleans or numbers
+            if(field.getType() == String.class && !(configValue instanceof String))
+                configValue = String.valueOf(configValue);
+
             try {
                 field.set(credentials, configValue);
             } catch (IllegalAccessException ex) {
@@ -0,0 +1,55 @@
+package ru.soknight.lib.database.credentials.local;
+
+import lombok.Getter;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import ru.soknight.lib.database.DatabaseType;
+import ru.soknight.lib.database.credentials.CredentialField;
+import ru.soknight.lib.database.credentials.DatabaseCredentials;
+import ru.soknight.lib.database.exception.DriverNotFoundException;
+import ru.soknight.lib.tool.Validate;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Getter
+public class H2DatabaseCredentials implements DatabaseCredentials, LocalDatabaseCredentials {
+
+    public static final String URL_PATTERN = "jdbc:h2:%s";
+    public static final String FILE_EXTENSION = ".mv.db";
+
+    // the path without the extension, H2 appends it itself
+    @CredentialField("file")
+    private String filePath;
+    // the compatibility mode, e.g. 'MySQL' or 'PostgreSQL'
+    @CredentialField("mode")
+    private String mode;
+
+    @Override
+    public String getConnectionUrl(Plugin plugin) {
+        Validate.notNull(filePath, "filePath");
+
+        String path = new File(plugin.getDataFolder(), filePath.replace('/', File.separatorChar)).getAbsolutePath();
+        String url = String.format(URL_PATTERN, path);
+        return mode != null && !mode.isEmpty() ? url + ";MODE=" + mode : url;
+    }
+
+    @Override
+    public boolean isDatabaseFileExists(@NotNull Plugin plugin) {
+        Path storageFilePath = plugin.getDataFolder().toPath().resolve(filePath.replace('/', File.separatorChar) + FILE_EXTENSION);
+        return Files.isRegularFile(storageFilePath);
+    }
+
+    @Override
+    public void loadDriver(Plugin plugin) throws DriverNotFoundException {
+        try {
+            Constructor<?> constructor = Class.forName("org.h2.Driver").getConstructor();
+            constructor.newInstance();
+        } catch (Throwable ex) {
+            throw new DriverNotFoundException(ex, DatabaseType.H2);
+        }
+    }
+
+}
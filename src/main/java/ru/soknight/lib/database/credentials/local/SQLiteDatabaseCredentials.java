@@ -1,5 +1,6 @@
 package ru.soknight.lib.database.credentials.local;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.plugin.Plugin;
 import ru.soknight.lib.database.DatabaseType;
@@ -10,6 +11,7 @@ import ru.soknight.lib.tool.Validate;
 
 import java.io.File;
 import java.lang.reflect.Constructor;
+import java.util.StringJoiner;
 
 @Getter
 public class SQLiteDatabaseCredentials implements DatabaseCredentials, LocalDatabaseCredentials {
@@ -19,12 +21,103 @@ public class SQLiteDatabaseCredentials implements DatabaseCredentials, LocalData
     @CredentialField("file")
     private String filePath;
 
+    // pragmas tuning, the profile values can be overridden by the specific options
+    @CredentialField("profile")
+    private String pragmaProfile;
+    @CredentialField("journal-mode")
+    private String journalMode;
+    @CredentialField("synchronous")
+    private String synchronous;
+    @CredentialField("cache-size")
+    private Number cacheSize;
+    @CredentialField("mmap-size")
+    private Number mmapSize;
+    @CredentialField("busy-timeout")
+    private Number busyTimeout;
+
+    @Getter(AccessLevel.NONE)
+    private boolean unknownProfileReported;
+    @Getter(AccessLevel.NONE)
+    private boolean unsafeSynchronousReported;
+
     @Override
     public String getConnectionUrl(Plugin plugin) {
         Validate.notNull(filePath, "filePath");
 
         String path = new File(plugin.getDataFolder(), filePath.replace('/', File.separatorChar)).getAbsolutePath();
-        return String.format(URL_PATTERN, path);
+        return String.format(URL_PATTERN, path) + formatPragmas(plugin, resolvePragmaProfile(plugin));
+    }
+
+    /**
+     * Resolve the configured pragma profile, an unknown profile falls back
+     * to the {@link SQLitePragmaProfile#SAFE} one which matches the SQLite defaults.
+     */
+    private SQLitePragmaProfile resolvePragmaProfile(Plugin plugin) {
+        if(pragmaProfile == null || pragmaProfile.isEmpty())
+            return null;
+
+        SQLitePragmaProfile profile = SQLitePragmaProfile.getById(pragmaProfile);
+        if(profile != null)
+            return profile;
+
+        if(!unknownProfileReported) {
+            plugin.getLogger().warning(String.format(
+                    "Unknown SQLite pragma profile '%s', the '%s' profile will be used instead.",
+                    pragmaProfile, SQLitePragmaProfile.SAFE.name().toLowerCase()
+            ));
+            unknownProfileReported = true;
+        }
+
+        return SQLitePragmaProfile.SAFE;
+    }
+
+    /**
+     * Format the configured pragmas as the connection URL parameters,
+     * so the JDBC driver applies them on each new connection.
+     */
+    private String formatPragmas(Plugin plugin, SQLitePragmaProfile profile) {
+        StringJoiner joiner = new StringJoiner("&", "?", "");
+        joiner.setEmptyValue("");
+
+        String journalMode = this.journalMode != null ? this.journalMode : profile != null ? profile.getJournalMode() : null;
+        String synchronous = this.synchronous != null ? this.synchronous : profile != null ? profile.getSynchronous() : null;
+        Long cacheSize = this.cacheSize != null ? Long.valueOf(this.cacheSize.longValue()) : profile != null ? Long.valueOf(profile.getCacheSize()) : null;
+        Long mmapSize = this.mmapSize != null ? Long.valueOf(this.mmapSize.longValue()) : profile != null ? Long.valueOf(profile.getMmapSize()) : null;
+
+        if(journalMode != null)
+            joiner.add("journal_mode=" + normalizePragmaValue(journalMode));
+        if(synchronous != null) {
+            String normalizedSynchronous = normalizePragmaValue(synchronous);
+            if(normalizedSynchronous.equals("OFF") || normalizedSynchronous.equals("0"))
+                reportUnsafeSynchronous(plugin);
+            joiner.add("synchronous=" + normalizedSynchronous);
+        }
+        if(cacheSize != null)
+            joiner.add("cache_size=" + cacheSize);
+        if(mmapSize != null)
+            joiner.add("mmap_size=" + mmapSize);
+        if(busyTimeout != null)
+            joiner.add("busy_timeout=" + busyTimeout.longValue());
+
+        return joiner.toString();
+    }
+
+    private void reportUnsafeSynchronous(Plugin plugin) {
+        if(unsafeSynchronousReported)
+            return;
+
+        plugin.getLogger().warning("SQLite synchronization is disabled ('synchronous=OFF'), "
+                + "the database file can be corrupted on an OS crash or a power loss!");
+        unsafeSynchronousReported = true;
+    }
+
+    // an unquoted 'off' is parsed by YAML as a boolean
+    private static String normalizePragmaValue(String value) {
+        if(value.equalsIgnoreCase("false"))
+            return "OFF";
+        if(value.equalsIgnoreCase("true"))
+            return "ON";
+        return value.toUpperCase();
     }
 
     @Override
@@ -0,0 +1,51 @@
+package ru.soknight.lib.database.credentials.local;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a predefined set of SQLite pragmas which are applied on each new connection
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public enum SQLitePragmaProfile {
+
+    /**
+     * Rollback journal with full synchronization, the SQLite defaults.
+     */
+    SAFE("DELETE", "FULL", -2_000L, 0L),
+
+    /**
+     * Write-ahead log with normal synchronization, durable against application crashes.
+     */
+    BALANCED("WAL", "NORMAL", -16_000L, 64L * 1024 * 1024),
+
+    /**
+     * Write-ahead log without synchronization.
+     * <br>
+     * <b>Unsafe:</b> with 'synchronous=OFF' an OS crash or a power loss can corrupt the database file,
+     * not just lose the last transactions. Application crashes are still safe.
+     * A warning is logged when this profile is used.
+     */
+    FAST("WAL", "OFF", -64_000L, 256L * 1024 * 1024);
+
+    private final @NotNull String journalMode;
+    private final @NotNull String synchronous;
+    private final long cacheSize;
+    private final long mmapSize;
+
+    public static @Nullable SQLitePragmaProfile getById(@Nullable String id) {
+        if(id == null || id.isEmpty())
+            return null;
+
+        for(SQLitePragmaProfile profile : values())
+            if(profile.name().equalsIgnoreCase(id))
+                return profile;
+
+        return null;
+    }
+
+}
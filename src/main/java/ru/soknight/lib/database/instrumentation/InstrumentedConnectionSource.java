@@ -0,0 +1,214 @@
+package ru.soknight.lib.database.instrumentation;
+
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The factory of dynamic proxies which report all ORMLite database operations to a {@link QueryInstrumentation}.
+ * <br>
+ * Proxies are used instead of the delegating implementations, so the instrumentation
+ * doesn't depend on the exact set of methods of the ORMLite interfaces.
+ */
+public final class InstrumentedConnectionSource {
+
+    private static final Set<String> TIMED_CONNECTION_METHODS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "executeStatement", "insert", "update", "delete", "queryForOne", "queryForLong", "isTableExists"
+    )));
+
+    private static final Set<String> TIMED_STATEMENT_METHODS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "runQuery", "runUpdate", "runExecute"
+    )));
+
+    private InstrumentedConnectionSource() {}
+
+    /**
+     * Wrap a connection source to report all operations of its connections
+     * @param connectionSource the connection source to wrap
+     * @param instrumentation the operations listener
+     * @return the instrumented connection source
+     */
+    public static @NotNull ConnectionSource wrap(@NotNull ConnectionSource connectionSource, @NotNull QueryInstrumentation instrumentation) {
+        if(unwrap(connectionSource) != connectionSource)
+            return connectionSource;
+
+        return proxy(ConnectionSource.class, connectionSource, new SourceHandler(connectionSource, instrumentation));
+    }
+
+    /**
+     * Get the original object if it's an instrumented proxy
+     * @param object the object to unwrap
+     * @return the original object or the same object if it isn't a proxy
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T unwrap(T object) {
+        if(object != null && Proxy.isProxyClass(object.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(object);
+            if(handler instanceof DelegatingHandler)
+                return (T) ((DelegatingHandler) handler).delegate;
+        }
+        return object;
+    }
+
+    /**
+     * Get the instrumentation of an instrumented proxy, so the operations executed
+     * bypassing the proxy (e.g. on the underlying JDBC connection) can be reported too
+     * @param object the object which may be an instrumented proxy
+     * @return the instrumentation or 'null' if the object isn't an instrumented proxy
+     */
+    public static @Nullable QueryInstrumentation getInstrumentation(@Nullable Object object) {
+        if(object != null && Proxy.isProxyClass(object.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(object);
+            if(handler instanceof DelegatingHandler)
+                return ((DelegatingHandler) handler).instrumentation;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(@NotNull Class<T> type, @NotNull Object delegate, @NotNull DelegatingHandler handler) {
+        // the proxy must implement all interfaces of the delegate (e.g. AutoCloseable)
+        Set<Class<?>> interfaces = new HashSet<>();
+        interfaces.add(type);
+        for(Class<?> current = delegate.getClass(); current != null; current = current.getSuperclass())
+            for(Class<?> implemented : current.getInterfaces())
+                if(Modifier.isPublic(implemented.getModifiers()))
+                    interfaces.add(implemented);
+
+        return (T) Proxy.newProxyInstance(delegate.getClass().getClassLoader(), interfaces.toArray(new Class<?>[0]), handler);
+    }
+
+    private static abstract class DelegatingHandler implements InvocationHandler {
+
+        protected final Object delegate;
+        protected final QueryInstrumentation instrumentation;
+
+        private DelegatingHandler(@NotNull Object delegate, @NotNull QueryInstrumentation instrumentation) {
+            this.delegate = delegate;
+            this.instrumentation = instrumentation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch(method.getName()) {
+                case "equals":
+                    if(args != null && args.length == 1 && method.getParameterTypes()[0] == Object.class)
+                        return delegate.equals(unwrap(args[0]));
+                    break;
+                case "hashCode":
+                    if(args == null || args.length == 0)
+                        return delegate.hashCode();
+                    break;
+                case "toString":
+                    if(args == null || args.length == 0)
+                        return "Instrumented" + delegate;
+                    break;
+            }
+
+            if(args != null)
+                for(int i = 0; i < args.length; i++)
+                    args[i] = unwrap(args[i]);
+
+            return handle(method, args);
+        }
+
+        protected abstract Object handle(@NotNull Method method, Object[] args) throws Throwable;
+
+        protected Object invokeDelegate(@NotNull Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+
+        protected Object invokeTimed(@NotNull Method method, Object[] args, @NotNull String statement) throws Throwable {
+            long startedAt = System.nanoTime();
+            Throwable error = null;
+            try {
+                return invokeDelegate(method, args);
+            } catch (Throwable ex) {
+                error = ex;
+                throw ex;
+            } finally {
+                instrumentation.onOperation(method.getName(), statement, System.nanoTime() - startedAt, error);
+            }
+        }
+
+    }
+
+    private static final class SourceHandler extends DelegatingHandler {
+
+        private SourceHandler(@NotNull ConnectionSource delegate, @NotNull QueryInstrumentation instrumentation) {
+            super(delegate, instrumentation);
+        }
+
+        @Override
+        protected Object handle(@NotNull Method method, Object[] args) throws Throwable {
+            Object result = invokeDelegate(method, args);
+            if(result instanceof DatabaseConnection)
+                return proxy(DatabaseConnection.class, result, new ConnectionHandler((DatabaseConnection) result, instrumentation));
+
+            return result;
+        }
+
+    }
+
+    private static final class ConnectionHandler extends DelegatingHandler {
+
+        private ConnectionHandler(@NotNull DatabaseConnection delegate, @NotNull QueryInstrumentation instrumentation) {
+            super(delegate, instrumentation);
+        }
+
+        @Override
+        protected Object handle(@NotNull Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            String statement = args != null && args.length != 0 && args[0] instanceof String ? (String) args[0] : "";
+
+            if(methodName.equals("compileStatement")) {
+                Object result = invokeDelegate(method, args);
+                if(result instanceof CompiledStatement)
+                    return proxy(CompiledStatement.class, result, new StatementHandler((CompiledStatement) result, instrumentation, statement));
+                return result;
+            }
+
+            if(TIMED_CONNECTION_METHODS.contains(methodName))
+                return invokeTimed(method, args, statement);
+
+            return invokeDelegate(method, args);
+        }
+
+    }
+
+    private static final class StatementHandler extends DelegatingHandler {
+
+        private final String statement;
+
+        private StatementHandler(@NotNull CompiledStatement delegate, @NotNull QueryInstrumentation instrumentation, @NotNull String statement) {
+            super(delegate, instrumentation);
+            this.statement = statement;
+        }
+
+        @Override
+        protected Object handle(@NotNull Method method, Object[] args) throws Throwable {
+            if(TIMED_STATEMENT_METHODS.contains(method.getName()))
+                return invokeTimed(method, args, statement);
+
+            return invokeDelegate(method, args);
+        }
+
+    }
+
+}
@@ -0,0 +1,21 @@
+package ru.soknight.lib.database.instrumentation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a listener of all database operations executed through an instrumented connection source
+ */
+@FunctionalInterface
+public interface QueryInstrumentation {
+
+    /**
+     * Called after each executed database operation
+     * @param operation the operation name (e.g. 'queryForOne', 'runQuery', 'executeStatement')
+     * @param statement the executed SQL statement if it's known or an empty string
+     * @param durationNanos the operation duration in nanoseconds
+     * @param error the thrown error or 'null' if the operation has been completed successfully
+     */
+    void onOperation(@NotNull String operation, @NotNull String statement, long durationNanos, @Nullable Throwable error);
+
+}
@@ -0,0 +1,150 @@
+package ru.soknight.lib.database.instrumentation;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * The built-in instrumentation which collects per-operation counts, errors and latency histograms
+ * and reports slow operations to the logger
+ */
+public final class QueryStatistics implements QueryInstrumentation {
+
+    /**
+     * Upper bounds (exclusive) of the latency histogram buckets in milliseconds, the last bucket is unbounded.
+     */
+    public static final long[] BUCKET_BOUNDS_MILLIS = { 1L, 5L, 10L, 50L, 100L, 500L, 1000L };
+
+    private final Logger logger;
+    private final long slowQueryThresholdNanos;
+    private final Map<String, OperationStatistics> operations;
+
+    /**
+     * Create a new statistics collector
+     * @param logger the logger to report slow operations
+     * @param slowQueryThresholdMillis the slow operation threshold or 0 to disable slow operations logging
+     */
+    public QueryStatistics(@NotNull Logger logger, long slowQueryThresholdMillis) {
+        this.logger = logger;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(slowQueryThresholdMillis, 0L));
+        this.operations = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onOperation(@NotNull String operation, @NotNull String statement, long durationNanos, @Nullable Throwable error) {
+        operations.computeIfAbsent(operation, OperationStatistics::new).record(durationNanos, error != null);
+
+        if(slowQueryThresholdNanos > 0L && durationNanos >= slowQueryThresholdNanos)
+            logger.warning(String.format("Slow database operation '%s' took %d ms: %s", operation, TimeUnit.NANOSECONDS.toMillis(durationNanos), statement));
+
+        if(error != null)
+            logger.fine(String.format("Database operation '%s' failed: %s", operation, error));
+    }
+
+    public @NotNull @UnmodifiableView Collection<OperationStatistics> getOperations() {
+        List<OperationStatistics> output = new ArrayList<>(operations.values());
+        output.sort(Comparator.comparing(OperationStatistics::getOperation));
+        return Collections.unmodifiableList(output);
+    }
+
+    public void reset() {
+        operations.clear();
+    }
+
+    /**
+     * Format the collected statistics as human-readable lines
+     * @return the report lines, one line per operation
+     */
+    public @NotNull List<String> formatReport() {
+        List<String> lines = new ArrayList<>();
+        for(OperationStatistics statistics : getOperations()) {
+            lines.add(String.format(
+                    "%s: count=%d, errors=%d, avg=%.2f ms, max=%.2f ms, histogram=%s",
+                    statistics.getOperation(), statistics.getCount(), statistics.getErrors(),
+                    statistics.getAverageMillis(), statistics.getMaxMillis(), statistics.formatHistogram()
+            ));
+        }
+        return lines;
+    }
+
+    public static final class OperationStatistics {
+
+        private final String operation;
+        private final LongAdder count;
+        private final LongAdder errors;
+        private final LongAdder totalNanos;
+        private final LongAccumulator maxNanos;
+        private final AtomicLongArray buckets;
+
+        private OperationStatistics(@NotNull String operation) {
+            this.operation = operation;
+            this.count = new LongAdder();
+            this.errors = new LongAdder();
+            this.totalNanos = new LongAdder();
+            this.maxNanos = new LongAccumulator(Math::max, 0L);
+            this.buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+        }
+
+        private void record(long durationNanos, boolean failed) {
+            count.increment();
+            if(failed)
+                errors.increment();
+
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+            int bucket = 0;
+            while(bucket < BUCKET_BOUNDS_MILLIS.length && durationMillis >= BUCKET_BOUNDS_MILLIS[bucket])
+                bucket++;
+
+            buckets.incrementAndGet(bucket);
+        }
+
+        public @NotNull String getOperation() {
+            return operation;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public double getAverageMillis() {
+            long count = getCount();
+            return count != 0L ? totalNanos.sum() / 1_000_000D / count : 0D;
+        }
+
+        public double getMaxMillis() {
+            return maxNanos.get() / 1_000_000D;
+        }
+
+        public long getBucketCount(int bucket) {
+            return buckets.get(bucket);
+        }
+
+        public @NotNull String formatHistogram() {
+            StringJoiner joiner = new StringJoiner(", ", "[", "]");
+            for(int i = 0; i < buckets.length(); i++) {
+                String bound = i < BUCKET_BOUNDS_MILLIS.length
+                        ? "<" + BUCKET_BOUNDS_MILLIS[i] + "ms"
+                        : ">=" + BUCKET_BOUNDS_MILLIS[BUCKET_BOUNDS_MILLIS.length - 1] + "ms";
+                joiner.add(bound + ": " + buckets.get(i));
+            }
+            return joiner.toString();
+        }
+
+    }
+
+}
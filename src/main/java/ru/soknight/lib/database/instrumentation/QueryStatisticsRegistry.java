@@ -0,0 +1,32 @@
+package ru.soknight.lib.database.instrumentation;
+
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The global registry of database statistics of all plugins which use the library
+ */
+public final class QueryStatisticsRegistry {
+
+    private static final Map<String, QueryStatistics> REGISTERED_STATISTICS = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private QueryStatisticsRegistry() {}
+
+    public static synchronized void register(@NotNull Plugin plugin, @NotNull QueryStatistics statistics) {
+        REGISTERED_STATISTICS.put(plugin.getName(), statistics);
+    }
+
+    public static synchronized void unregister(@NotNull Plugin plugin) {
+        REGISTERED_STATISTICS.remove(plugin.getName());
+    }
+
+    public static synchronized @NotNull @UnmodifiableView Map<String, QueryStatistics> getRegisteredStatistics() {
+        return Collections.unmodifiableMap(new TreeMap<>(REGISTERED_STATISTICS));
+    }
+
+}
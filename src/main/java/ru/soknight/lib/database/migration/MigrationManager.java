@@ -1,16 +1,21 @@
 package ru.soknight.lib.database.migration;
 
+import com.j256.ormlite.dao.CloseableIterator;
 import com.j256.ormlite.dao.Dao;
 import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.misc.TransactionManager;
 import com.j256.ormlite.support.ConnectionSource;
 import com.j256.ormlite.support.DatabaseConnection;
 import com.j256.ormlite.table.TableUtils;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
 import ru.soknight.lib.database.DataRegistryManager;
 import ru.soknight.lib.database.Database;
+import ru.soknight.lib.database.DatabaseType;
 import ru.soknight.lib.database.credentials.DatabaseCredentials;
+import ru.soknight.lib.database.model.DataEntry;
 import ru.soknight.lib.database.migration.annotation.ActualSchemaVersion;
 import ru.soknight.lib.database.migration.config.MigrationParser;
 import ru.soknight.lib.database.migration.exception.DataConvertationException;
@@ -30,6 +35,11 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class MigrationManager {
@@ -62,20 +72,54 @@ public class MigrationManager {
     private final Database database;
     private final DataRegistryManager dataRegistryManager;
     private final Map<String, MigrationDataConverter<?, ?>> dataConverters;
+    private final Map<String, Integer> conversionParallelism;
     private final SortedMap<Integer, DatabaseSchemaAnalyzer> schemaAnalyzers;
 
     private Integer currentSchemaVersion;
     private Integer actualSchemaVersion;
     private String migrationsPathRoot = MigrationParser.DEFAULT_MIGRATIONS_PATH_ROOT;
+    private int streamingChunkSize;
+    private boolean statementTimingsEnabled;
 
     public MigrationManager(@NotNull Plugin plugin, @NotNull Database database) throws SQLException {
         this.plugin = plugin;
         this.database = database;
         this.dataRegistryManager = new DataRegistryManager(plugin, database.getBootstrapConnection());
         this.dataConverters = new LinkedHashMap<>();
+        this.conversionParallelism = new HashMap<>();
         this.schemaAnalyzers = new TreeMap<>(Comparator.naturalOrder());
     }
 
+    /**
+     * Release the executor threads and the statements of the internal data registry.
+     * <br>
+     * Should be called when the bootstrap connection is closed.
+     */
+    public void shutdown() {
+        dataRegistryManager.shutdown();
+    }
+
+    /**
+     * Check the schema version stored in the data registry without running any schema analyzer.
+     * @return 'true' if the stored version equals the actual schema version, overwise 'false'
+     */
+    public boolean isStoredSchemaVersionActual() {
+        if(actualSchemaVersion == null && !resolveActualSchemaVersion(false).isPresent())
+            return false;
+
+        DataEntry storedVersionEntry = dataRegistryManager.getEntry(getSchemaVersionKey()).join();
+        if(storedVersionEntry == null)
+            return false;
+
+        OptionalInt storedVersion = storedVersionEntry.getValueAsInt();
+        if(!storedVersion.isPresent() || storedVersion.getAsInt() != actualSchemaVersion)
+            return false;
+
+        this.currentSchemaVersion = storedVersion.getAsInt();
+        printInfo("Database schema is up to date.");
+        return true;
+    }
+
     public boolean analyzeDatabaseSchema() {
         DatabaseCredentials credentials = database.getCredentials();
         ConnectionSource bootstrapConnection = database.getBootstrapConnection();
@@ -134,6 +178,7 @@ public class MigrationManager {
             throw new IllegalArgumentException(String.format("Migration '%s' isn't provided by %s!", migrationPath, plugin));
 
         dataConverters.put(migrationPath, dataConverter);
+        conversionParallelism.remove(migrationPath);
     }
 
     public void registerDataConverter(@NotNull WrappedDataConverter<?, ?> wrappedDataConverter) {
@@ -141,6 +186,9 @@ public class MigrationManager {
         String migrationPath = wrappedDataConverter.getFullMigrationPath(migrationsPathRoot);
         MigrationDataConverter<?, ?> dataConverter = wrappedDataConverter.getDataConverter();
         registerDataConverter(migrationPath, dataConverter);
+
+        if(wrappedDataConverter.isParallel())
+            conversionParallelism.put(migrationPath, wrappedDataConverter.getParallelism());
     }
 
     public void registerSchemaAnalyzer(int schemaVersion, @NotNull DatabaseSchemaAnalyzer schemaAnalyzer) {
@@ -158,6 +206,32 @@ public class MigrationManager {
         this.migrationsPathRoot = migrationsPathRoot;
     }
 
+    /**
+     * Enable the streaming data migration mode.
+     * <br>
+     * In this mode the source table is iterated with a DAO cursor, the data is converted
+     * by fixed-size chunks and each chunk is inserted into the destination table in its own
+     * transaction, so the memory usage doesn't depend on the table size.
+     * <br>
+     * The source and destination tables must differ, the data is transferred
+     * <b>before</b> the migration SQL statements are executed.
+     * @param streamingChunkSize the chunk size or 0 to use the default in-memory mode
+     */
+    public void setStreamingChunkSize(int streamingChunkSize) {
+        Validate.isTrue(streamingChunkSize >= 0, "Streaming chunk size cannot be negative!");
+        this.streamingChunkSize = streamingChunkSize;
+    }
+
+    /**
+     * Report the execution time of each migration statement instead of the whole batch time.
+     * <br>
+     * The statements aren't batched in this mode, so use it for the migrations debugging only.
+     * @param statementTimingsEnabled should each statement be measured
+     */
+    public void setStatementTimingsEnabled(boolean statementTimingsEnabled) {
+        this.statementTimingsEnabled = statementTimingsEnabled;
+    }
+
     public boolean runMigrations() throws MigrationResolveException, MigrationParseException, MigrationRunException, DataConvertationException, SQLException {
         OptionalInt wrappedActualSchemaVersion = resolveActualSchemaVersion();
         if(!wrappedActualSchemaVersion.isPresent())
@@ -220,6 +294,7 @@ public class MigrationManager {
         printInfo("  > Processing migration '%s'...", migration.getName());
 
         MigrationDataConverter<OLD, NEW> dataConverter = (MigrationDataConverter<OLD, NEW>) dataConverters.get(migration.getResourcePath());
+        int parallelism = conversionParallelism.getOrDefault(migration.getResourcePath(), 1);
         Optional<String> sourceTableName = migration.getSourceTableName();
         Optional<String> destinationTableName = migration.getDestinationTableName();
 
@@ -235,23 +310,41 @@ public class MigrationManager {
             if(!destinationTableName.isPresent())
                 throw new MigrationRunException(migration, "destination table name must be specified via 'destination' property!");
 
-            Type[] genericInterfaces = dataConverter.getClass().getGenericInterfaces();
-            for(Type genericInterface : genericInterfaces) {
-                ParameterizedType parameterizedInterface = (ParameterizedType) genericInterface;
-                if(parameterizedInterface.getRawType() == MigrationDataConverter.class) {
-                    oldDataType = (Class<OLD>) parameterizedInterface.getActualTypeArguments()[0];
-                    newDataType = (Class<NEW>) parameterizedInterface.getActualTypeArguments()[1];
+            boolean streaming = streamingChunkSize > 0;
+            if(streaming && sourceTableName.get().equalsIgnoreCase(destinationTableName.get()))
+                throw new MigrationRunException(migration, "streaming migration requires different source and destination tables!");
 
-                    List<OLD> oldDataEntries = extractOldData(migration, oldDataType, sourceTableName.get());
-                    newDataEntries = convertDataEntries(oldDataEntries, dataConverter, oldDataType, newDataType);
+            // the same conversion threads are used for all chunks of this migration
+            ExecutorService conversionExecutor = parallelism > 1 ? createConversionExecutor(parallelism) : null;
+            try {
+                Type[] genericInterfaces = dataConverter.getClass().getGenericInterfaces();
+                for(Type genericInterface : genericInterfaces) {
+                    ParameterizedType parameterizedInterface = (ParameterizedType) genericInterface;
+                    if(parameterizedInterface.getRawType() == MigrationDataConverter.class) {
+                        oldDataType = (Class<OLD>) parameterizedInterface.getActualTypeArguments()[0];
+                        newDataType = (Class<NEW>) parameterizedInterface.getActualTypeArguments()[1];
+
+                        if(streaming) {
+                            streamData(dataConverter, conversionExecutor, parallelism, oldDataType, newDataType, sourceTableName.get(), destinationTableName.get());
+                        } else {
+                            List<OLD> oldDataEntries = extractOldData(migration, oldDataType, sourceTableName.get());
+                            newDataEntries = convertDataEntries(oldDataEntries, dataConverter, conversionExecutor, parallelism, oldDataType, newDataType);
+                        }
+                    }
                 }
+            } finally {
+                if(conversionExecutor != null)
+                    conversionExecutor.shutdownNow();
             }
         }
 
         DatabaseConnection migrationConnection = bootstrapConnection.getReadWriteConnection(null);
-        boolean isSuccess = new MigrationRunner(migration, migrationConnection).runStatements();
+        MigrationRunner migrationRunner = new MigrationRunner(migration, migrationConnection, database.getDatabaseType())
+                .setStatementTimingsEnabled(statementTimingsEnabled);
+        boolean isSuccess = migrationRunner.runStatements();
 
         if(isSuccess) {
+            printStatementTimings(migration, migrationRunner);
             bootstrapConnection.releaseConnection(migrationConnection);
         } else {
             return false;
@@ -264,6 +357,82 @@ public class MigrationManager {
         return true;
     }
 
+    private <OLD, NEW> long streamData(
+            @NotNull MigrationDataConverter<OLD, NEW> converter,
+            @Nullable ExecutorService conversionExecutor,
+            int parallelism,
+            @NotNull Class<OLD> oldDataType,
+            @NotNull Class<NEW> newDataType,
+            @NotNull String sourceTableName,
+            @NotNull String destinationTableName
+    ) throws DataConvertationException, SQLException {
+        printInfo(
+                "    > Streaming data from table '%s' into table '%s' by chunks of %d entries...",
+                sourceTableName, destinationTableName, streamingChunkSize
+        );
+
+        ConnectionSource bootstrapConnection = database.getBootstrapConnection();
+        TableUtils.createTableIfNotExists(bootstrapConnection, newDataType);
+
+        // the old data is read using a dedicated cursor connection, so the chunks can be committed meanwhile;
+        // SQLite steps through the results natively and would block the writer by the reader's lock
+        boolean dedicatedReader = database.getDatabaseType() != DatabaseType.SQLITE;
+        ConnectionSource readConnection = dedicatedReader
+                ? database.establishStreamingConnection(streamingChunkSize)
+                : bootstrapConnection;
+
+        List<OLD> chunk = new ArrayList<>(streamingChunkSize);
+        long transferredCounter = 0L;
+
+        Dao<OLD, ?> oldDataDao = null;
+        CloseableIterator<OLD> iterator = null;
+        try {
+            oldDataDao = DaoManager.createDao(readConnection, oldDataType);
+            Dao<NEW, ?> newDataDao = DaoManager.createDao(bootstrapConnection, newDataType);
+
+            iterator = oldDataDao.iterator();
+            while(iterator.hasNext()) {
+                chunk.add(iterator.next());
+
+                if(chunk.size() >= streamingChunkSize) {
+                    transferredCounter += insertChunk(newDataDao, convert(chunk, converter, conversionExecutor, parallelism, oldDataType, newDataType));
+                    chunk.clear();
+                }
+            }
+
+            if(!chunk.isEmpty())
+                transferredCounter += insertChunk(newDataDao, convert(chunk, converter, conversionExecutor, parallelism, oldDataType, newDataType));
+        } finally {
+            if(iterator != null)
+                iterator.closeQuietly();
+
+            if(dedicatedReader) {
+                if(oldDataDao != null)
+                    DaoManager.unregisterDao(readConnection, oldDataDao);
+                readConnection.closeQuietly();
+            }
+        }
+
+        printInfo("    > %d entries have been transferred.", transferredCounter);
+        return transferredCounter;
+    }
+
+    private <NEW> int insertChunk(@NotNull Dao<NEW, ?> newDataDao, @NotNull List<NEW> chunk) throws SQLException {
+        return TransactionManager.callInTransaction(database.getBootstrapConnection(), () -> newDataDao.create(chunk));
+    }
+
+    private void printStatementTimings(@NotNull Migration migration, @NotNull MigrationRunner migrationRunner) {
+        List<MigrationRunner.StatementTiming> statementTimings = migrationRunner.getStatementTimings();
+        printInfo(
+                "    > Executed %d statement(s) in %d ms%s.",
+                migration.getSQLStatements().size(), migrationRunner.getTotalTimeMillis(),
+                migrationRunner.isBatched() ? " as a transactional batch" : ""
+        );
+
+        for(MigrationRunner.StatementTiming timing : statementTimings)
+            printInfo("      > [%d ms] %s", timing.getDurationNanos() / 1_000_000L, timing.getStatement());
+    }
+
     private <OLD> @NotNull @UnmodifiableView List<OLD> extractOldData(
             @NotNull Migration migration,
             @NotNull Class<OLD> oldDataType,
@@ -279,6 +448,8 @@ public class MigrationManager {
     private <OLD, NEW> @NotNull @UnmodifiableView List<NEW> convertDataEntries(
             @NotNull List<OLD> oldDataEntries,
             @NotNull MigrationDataConverter<OLD, NEW> converter,
+            @Nullable ExecutorService conversionExecutor,
+            int parallelism,
             @NotNull Class<OLD> oldDataType,
             @NotNull Class<NEW> newDataType
     ) throws DataConvertationException {
@@ -288,10 +459,28 @@ public class MigrationManager {
         String oldType = oldDataType.getSimpleName();
         String newType = newDataType.getSimpleName();
 
-        printInfo("    > Converting %d old entries to new format (%s -> %s)...", oldDataEntries.size(), oldType, newType);
+        if(parallelism > 1) {
+            printInfo("    > Converting %d old entries to new format (%s -> %s) using %d threads...", oldDataEntries.size(), oldType, newType, parallelism);
+        } else {
+            printInfo("    > Converting %d old entries to new format (%s -> %s)...", oldDataEntries.size(), oldType, newType);
+        }
+
+        return convert(oldDataEntries, converter, conversionExecutor, parallelism, oldDataType, newDataType);
+    }
+
+    private <OLD, NEW> @NotNull List<NEW> convert(
+            @NotNull List<OLD> oldDataEntries,
+            @NotNull MigrationDataConverter<OLD, NEW> converter,
+            @Nullable ExecutorService conversionExecutor,
+            int parallelism,
+            @NotNull Class<OLD> oldDataType,
+            @NotNull Class<NEW> newDataType
+    ) throws DataConvertationException {
+        if(conversionExecutor != null && parallelism > 1 && oldDataEntries.size() > 1)
+            return convertInParallel(oldDataEntries, converter, conversionExecutor, parallelism, oldDataType, newDataType);
 
         try {
-            List<NEW> newDataEntries = new ArrayList<>();
+            List<NEW> newDataEntries = new ArrayList<>(oldDataEntries.size());
 
             for(OLD oldDataEntry : oldDataEntries) {
                 NEW newDataEntry = converter.convert(oldDataEntry);
@@ -304,6 +493,77 @@ public class MigrationManager {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private <OLD, NEW> @NotNull List<NEW> convertInParallel(
+            @NotNull List<OLD> oldDataEntries,
+            @NotNull MigrationDataConverter<OLD, NEW> converter,
+            @NotNull ExecutorService conversionExecutor,
+            int parallelism,
+            @NotNull Class<OLD> oldDataType,
+            @NotNull Class<NEW> newDataType
+    ) throws DataConvertationException {
+        int size = oldDataEntries.size();
+        int slicesCount = Math.min(parallelism, size);
+        int sliceSize = (size + slicesCount - 1) / slicesCount;
+
+        Object[] converted = new Object[size];
+        Throwable[] failures = new Throwable[slicesCount];
+        AtomicInteger firstFailedIndex = new AtomicInteger(Integer.MAX_VALUE);
+
+        // each thread converts a contiguous slice, so the first failed slice contains the first failure
+        List<Future<?>> futures = new ArrayList<>(slicesCount);
+        try {
+            for(int slice = 0; slice < slicesCount; slice++) {
+                int sliceIndex = slice;
+                int from = slice * sliceSize;
+                int to = Math.min(from + sliceSize, size);
+
+                futures.add(conversionExecutor.submit(() -> {
+                    for(int i = from; i < to && i < firstFailedIndex.get(); i++) {
+                        try {
+                            converted[i] = converter.convert(oldDataEntries.get(i));
+                        } catch (Throwable ex) {
+                            failures[sliceIndex] = ex;
+                            firstFailedIndex.accumulateAndGet(i, Math::min);
+                            return;
+                        }
+                    }
+                }));
+            }
+
+            for(Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DataConvertationException(oldDataType, newDataType, ex);
+        } catch (ExecutionException ex) {
+            throw new DataConvertationException(oldDataType, newDataType, ex.getCause());
+        } finally {
+            // the executor is shared between chunks, so only the own unfinished slices are cancelled
+            for(Future<?> future : futures)
+                future.cancel(true);
+        }
+
+        for(Throwable failure : failures)
+            if(failure != null)
+                throw new DataConvertationException(oldDataType, newDataType, failure);
+
+        List<NEW> newDataEntries = new ArrayList<>(size);
+        for(Object newDataEntry : converted)
+            newDataEntries.add((NEW) newDataEntry);
+
+        return newDataEntries;
+    }
+
+    private static @NotNull ExecutorService createConversionExecutor(int parallelism) {
+        AtomicInteger threadsCounter = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "SKLibrary Migration Converter #" + threadsCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     private <NEW> int importNewData(
             @NotNull Migration migration,
             @NotNull List<NEW> newDataEntries,
@@ -327,18 +587,24 @@ public class MigrationManager {
         if(currentSchemaVersion != null)
             return currentSchemaVersion;
 
-        String key = String.format(SCHEMA_VERSION_KEY_FORMAT, plugin.getName().toLowerCase());
-        return dataRegistryManager.getEntryOrDefault(key, defaultVersion).join()
+        return dataRegistryManager.getEntryOrDefault(getSchemaVersionKey(), defaultVersion).join()
                 .getValueAsInt()
                 .orElseThrow(() -> new IllegalArgumentException("Database has returned a non-digital schema version!"));
     }
 
     private void updateCurrentSchemaVersion(int version) {
-        String key = String.format(SCHEMA_VERSION_KEY_FORMAT, plugin.getName().toLowerCase());
-        dataRegistryManager.saveEntry(key, version).join();
+        dataRegistryManager.saveEntry(getSchemaVersionKey(), version).join();
+    }
+
+    private @NotNull String getSchemaVersionKey() {
+        return String.format(SCHEMA_VERSION_KEY_FORMAT, plugin.getName().toLowerCase());
     }
 
     public @NotNull OptionalInt resolveActualSchemaVersion() {
+        return resolveActualSchemaVersion(true);
+    }
+
+    private @NotNull OptionalInt resolveActualSchemaVersion(boolean reportErrors) {
         if(actualSchemaVersion != null)
             return OptionalInt.of(actualSchemaVersion);
 
@@ -358,15 +624,19 @@ public class MigrationManager {
                     try {
                         publicField.getInt(plugin);
                     } catch (IllegalAccessException ex) {
-                        reportAsError(
-                                "Actual schema version determining field '%s' from %s isn't accessible!",
-                                publicField.getName(), plugin.getClass().getName()
-                        );
+                        if(reportErrors) {
+                            reportAsError(
+                                    "Actual schema version determining field '%s' from %s isn't accessible!",
+                                    publicField.getName(), plugin.getClass().getName()
+                            );
+                        }
                     } catch (IllegalArgumentException ex) {
-                        reportAsError(
-                                "Couldn't get an int value from actual schema version determining field '%s' in %s!",
-                                publicField.getName(), plugin.getClass().getName()
-                        );
+                        if(reportErrors) {
+                            reportAsError(
+                                    "Couldn't get an int value from actual schema version determining field '%s' in %s!",
+                                    publicField.getName(), plugin.getClass().getName()
+                            );
+                        }
                     }
                     return OptionalInt.empty();
                 } else {
@@ -378,6 +648,9 @@ public class MigrationManager {
             }
         }
 
+        if(!reportErrors)
+            return OptionalInt.empty();
+
         reportAsError("Couldn't determine an actual database schema version for this plugin!");
         reportAsError(
                 "You can specify that manually using the Database#setActualSchemaVersion " +
@@ -17,7 +17,8 @@ public enum MigrationTarget {
     ALL(null),
     SQLITE(DatabaseType.SQLITE),
     MYSQL(DatabaseType.MYSQL),
-    POSTGRESQL(DatabaseType.POSTGRESQL);
+    POSTGRESQL(DatabaseType.POSTGRESQL),
+    H2(DatabaseType.H2);
 
     private final DatabaseType databaseType;
 
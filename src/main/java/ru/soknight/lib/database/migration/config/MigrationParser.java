@@ -2,6 +2,7 @@ package ru.soknight.lib.database.migration.config;
 
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
 import ru.soknight.lib.database.migration.Migration;
 import ru.soknight.lib.database.migration.exception.MigrationParseException;
@@ -10,10 +11,7 @@ import ru.soknight.lib.tool.Validate;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
-import java.util.Enumeration;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
@@ -25,6 +23,7 @@ public class MigrationParser {
 
     public static final String DEFAULT_MIGRATIONS_PATH_ROOT = "migrations/";
     public static final String MIGRATION_CONFIG_EXTENSION = ".dbsp";
+    public static final String MIGRATIONS_INDEX_FILE = "index.list";
 
     private static final Pattern HEADER_PATTERN = Pattern.compile("^\\[(.*)]$");
     private static final Pattern KEY_VALUE_PAIR_PATTERN = Pattern.compile("(\\w++)\\s?=\\s?(.++)");
@@ -62,15 +61,92 @@ public class MigrationParser {
     }
 
     public void findMigrationConfigs() throws MigrationResolveException, MigrationParseException {
+        List<String> resourcePaths = readProvidedIndex();
+        if(resourcePaths != null && !isValidIndex(resourcePaths))
+            resourcePaths = null;
+
+        if(resourcePaths == null)
+            resourcePaths = scanPluginJar();
+
+        for(String resourcePath : resourcePaths) {
+            logDebug("Found migration config '%s'", resourcePath);
+
+            MigrationConfiguration migrationConfig = parseMigrationConfig(resourcePath);
+            Migration migration = migrationConfig.makeInstance();
+            migrations.put(migration.getResourcePath(), migration);
+
+            logDebug("Successfully loaded migration '%s': %s", migration.getId(), migration);
+        }
+    }
+
+    /**
+     * Read the migrations index provided by the plugin JAR (can be generated at build time, see README).
+     * <br>
+     * The index is the '{@value #MIGRATIONS_INDEX_FILE}' resource placed in the migrations path root,
+     * each line contains the entry name of one migration config, e.g. 'migrations/v2/add_column.dbsp'.
+     * @return the migration config resource paths or 'null' if the index isn't provided
+     */
+    private @Nullable List<String> readProvidedIndex() throws MigrationResolveException {
+        InputStream resource = plugin.getClass().getResourceAsStream('/' + migrationsPathRoot + MIGRATIONS_INDEX_FILE);
+        if(resource == null)
+            return null;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
+            logDebug("Using the provided migrations index");
+            return readIndexLines(reader);
+        } catch (IOException ex) {
+            throw new MigrationResolveException(ex);
+        }
+    }
+
+    /**
+     * Check that all configs listed by the provided index exist, so a stale index is ignored.
+     * <br>
+     * The JAR is scanned for the configs missing in the index only if the debug logging is enabled,
+     * because the index is used to avoid the scanning.
+     * @param resourcePaths the resource paths listed by the index
+     * @return 'true' if the index can be used, 'false' to scan the plugin JAR instead
+     */
+    private boolean isValidIndex(@NotNull List<String> resourcePaths) throws MigrationResolveException {
+        for(String resourcePath : resourcePaths) {
+            if(plugin.getClass().getResource(resourcePath) == null) {
+                logWarning("Migrations index lists missing config '%s', scanning the plugin JAR instead...", resourcePath);
+                return false;
+            }
+        }
+
+        if(debugLoggingEnabled) {
+            File pluginJarFile = getPluginJarFile();
+            if(pluginJarFile.isFile()) {
+                Set<String> listedPaths = new HashSet<>(resourcePaths);
+                for(String resourcePath : scanPluginJar(pluginJarFile))
+                    if(!listedPaths.contains(resourcePath))
+                        logWarning("Migration config '%s' isn't listed in the migrations index!", resourcePath);
+            }
+        }
+
+        return true;
+    }
+
+    private @NotNull File getPluginJarFile() {
         String pluginJarPath = plugin.getClass().getProtectionDomain().getCodeSource().getLocation().getPath();
         logDebug("Code source path is '%s'", pluginJarPath);
+        return new File(pluginJarPath);
+    }
 
-        File pluginJarFile = new File(pluginJarPath);
+    private @NotNull List<String> scanPluginJar() throws MigrationResolveException {
+        File pluginJarFile = getPluginJarFile();
         if(!pluginJarFile.isFile())
-            throw new IllegalArgumentException(String.format("Code source file '%s' isn't a regular file!", pluginJarPath));
+            throw new IllegalArgumentException(String.format("Code source file '%s' isn't a regular file!", pluginJarFile.getPath()));
 
-        try {
-            JarFile pluginJar = new JarFile(pluginJarFile);
+        return scanPluginJar(pluginJarFile);
+    }
+
+    private @NotNull List<String> scanPluginJar(@NotNull File pluginJarFile) throws MigrationResolveException {
+        logDebug("Scanning the plugin JAR for migration configs...");
+
+        List<String> resourcePaths = new ArrayList<>();
+        try (JarFile pluginJar = new JarFile(pluginJarFile)) {
             Enumeration<JarEntry> entries = pluginJar.entries();
             while(entries.hasMoreElements()) {
                 JarEntry entry = entries.nextElement();
@@ -78,20 +154,29 @@ public class MigrationParser {
                     continue;
 
                 String entryName = entry.getName();
-                if(entryName.startsWith(migrationsPathRoot) && entryName.endsWith(MIGRATION_CONFIG_EXTENSION)) {
-                    logDebug("Found migration config '%s'", entryName);
-                    String resourcePath = '/' + entryName;
-
-                    MigrationConfiguration migrationConfig = parseMigrationConfig(resourcePath);
-                    Migration migration = migrationConfig.makeInstance();
-                    migrations.put(migration.getResourcePath(), migration);
-
-                    logDebug("Successfully loaded migration '%s': %s", migration.getId(), migration);
-                }
+                if(entryName.startsWith(migrationsPathRoot) && entryName.endsWith(MIGRATION_CONFIG_EXTENSION))
+                    resourcePaths.add('/' + entryName);
             }
         } catch (IOException ex) {
             throw new MigrationResolveException(ex);
         }
+
+        return resourcePaths;
+    }
+
+    private @NotNull List<String> readIndexLines(@NotNull BufferedReader reader) throws IOException {
+        List<String> resourcePaths = new ArrayList<>();
+
+        String line;
+        while((line = reader.readLine()) != null) {
+            line = line.trim();
+            if(line.isEmpty() || line.startsWith("#"))
+                continue;
+
+            resourcePaths.add(line.startsWith("/") ? line : '/' + line);
+        }
+
+        return resourcePaths;
     }
 
     public @NotNull MigrationConfiguration parseMigrationConfig(@NotNull String resourcePath) throws MigrationParseException {
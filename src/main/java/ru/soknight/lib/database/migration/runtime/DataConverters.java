@@ -27,4 +27,11 @@ public final class DataConverters {
         return new WrappedDataConverter<>(migrationPath, useRelativePath, dataConverter);
     }
 
+    public static <OLD, NEW> @NotNull WrappedDataConverter<OLD, NEW> wrapParallel(
+            @NotNull MigrationDataConverter<OLD, NEW> dataConverter,
+            int parallelism
+    ) throws PathAnnotationNotFoundException {
+        return wrap(dataConverter).withParallelism(parallelism);
+    }
+
 }
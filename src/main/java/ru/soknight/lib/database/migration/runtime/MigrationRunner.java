@@ -1,40 +1,200 @@
 package ru.soknight.lib.database.migration.runtime;
 
 import com.j256.ormlite.support.DatabaseConnection;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+import ru.soknight.lib.database.DatabaseType;
 import ru.soknight.lib.database.migration.Migration;
 import ru.soknight.lib.database.migration.exception.MigrationRunException;
 import ru.soknight.lib.tool.Validate;
 
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class MigrationRunner {
 
     private final Migration migration;
     private final DatabaseConnection migrationConnection;
+    private final DatabaseType databaseType;
+
+    private final List<StatementTiming> statementTimings;
+    private boolean statementTimingsEnabled;
+    private long totalTimeNanos;
+    private boolean batched;
 
     public MigrationRunner(@NotNull Migration migration, @NotNull DatabaseConnection migrationConnection) {
+        this(migration, migrationConnection, null);
+    }
+
+    /**
+     * Create a new migration runner.
+     * <br>
+     * If the database type is known and it supports transactional DDL (SQLite, PostgreSQL),
+     * all statements of the migration will be executed in one transaction as a JDBC batch.
+     * <br>
+     * MySQL isn't batched: each DDL statement commits implicitly, so a failed batch cannot be
+     * rolled back, and Connector/J continues the batch after a failed statement by default.
+     * @param migration the migration to run
+     * @param migrationConnection the connection to run on
+     * @param databaseType the database type or 'null' to execute statements one by one without a transaction
+     */
+    public MigrationRunner(
+            @NotNull Migration migration,
+            @NotNull DatabaseConnection migrationConnection,
+            @Nullable DatabaseType databaseType
+    ) {
         Validate.notNull(migration, "migration");
         Validate.notNull(migrationConnection, "migrationConnection");
 
         this.migration = migration;
         this.migrationConnection = migrationConnection;
+        this.databaseType = databaseType;
+        this.statementTimings = new ArrayList<>();
+    }
+
+    /**
+     * Measure each statement separately, the statements of the transactional migrations
+     * are executed one by one in the transaction instead of a batch then.
+     * @param statementTimingsEnabled should each statement be measured
+     * @return this runner
+     */
+    public @NotNull MigrationRunner setStatementTimingsEnabled(boolean statementTimingsEnabled) {
+        this.statementTimingsEnabled = statementTimingsEnabled;
+        return this;
     }
 
     public boolean runStatements() throws MigrationRunException {
         if(!migration.hasSQLStatements())
             return false;
 
+        statementTimings.clear();
+        long startedAt = System.nanoTime();
+
         try {
             List<String> statements = migration.getSQLStatements();
-            for(String statement : statements) {
-                migrationConnection.executeStatement(statement, DatabaseConnection.DEFAULT_RESULT_FLAGS);
+            if(isTransactionalDDLSupported()) {
+                runInTransaction(statements);
+            } else {
+                runSequentially(statements);
             }
             return true;
         } catch (SQLException ex) {
             throw new MigrationRunException(migration, ex);
+        } finally {
+            this.totalTimeNanos = System.nanoTime() - startedAt;
         }
     }
 
+    /**
+     * Get the execution time of each statement in nanoseconds.
+     * <br>
+     * Batched statements are executed by the driver at once, so in this case
+     * there is the only one entry with the time of whole batch, see {@link #setStatementTimingsEnabled(boolean)}.
+     * <br>
+     * The same statement may be executed several times, so the timings are listed by the execution order.
+     * @return the statement timings in the execution order
+     */
+    public @NotNull @UnmodifiableView List<StatementTiming> getStatementTimings() {
+        return Collections.unmodifiableList(statementTimings);
+    }
+
+    public long getTotalTimeMillis() {
+        return totalTimeNanos / 1_000_000L;
+    }
+
+    public boolean isBatched() {
+        return batched;
+    }
+
+    private boolean isTransactionalDDLSupported() {
+        return databaseType == DatabaseType.SQLITE || databaseType == DatabaseType.POSTGRESQL;
+    }
+
+    private void runSequentially(@NotNull List<String> statements) throws SQLException {
+        for(String statement : statements) {
+            long startedAt = System.nanoTime();
+            migrationConnection.executeStatement(statement, DatabaseConnection.DEFAULT_RESULT_FLAGS);
+            statementTimings.add(new StatementTiming(statement, System.nanoTime() - startedAt));
+        }
+    }
+
+    private void runInTransaction(@NotNull List<String> statements) throws SQLException {
+        Connection connection = migrationConnection.getUnderlyingConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        this.batched = !statementTimingsEnabled && connection.getMetaData().supportsBatchUpdates();
+
+        Exception failure = null;
+        try {
+            if(autoCommit)
+                connection.setAutoCommit(false);
+
+            if(batched) {
+                runBatch(connection, statements);
+            } else {
+                runSequentially(statements);
+            }
+
+            connection.commit();
+        } catch (SQLException | RuntimeException ex) {
+            failure = ex;
+            // the original failure is more important than the rollback one
+            try {
+                connection.rollback();
+            } catch (SQLException rollbackEx) {
+                ex.addSuppressed(rollbackEx);
+            }
+            throw ex;
+        } finally {
+            if(autoCommit) {
+                try {
+                    connection.setAutoCommit(true);
+                } catch (SQLException ex) {
+                    if(failure == null)
+                        throw ex;
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+    }
+
+    private void runBatch(@NotNull Connection connection, @NotNull List<String> statements) throws SQLException {
+        try (Statement batch = connection.createStatement()) {
+            for(String statement : statements)
+                batch.addBatch(statement);
+
+            long startedAt = System.nanoTime();
+            try {
+                batch.executeBatch();
+            } catch (BatchUpdateException ex) {
+                int[] updateCounts = ex.getUpdateCounts();
+                int failedIndex = updateCounts != null ? updateCounts.length : 0;
+                if(failedIndex < statements.size())
+                    throw new SQLException(String.format(
+                            "statement #%d failed: '%s' (%s)", failedIndex + 1, statements.get(failedIndex), ex.getMessage()
+                    ), ex);
+                throw ex;
+            }
+
+            statementTimings.add(new StatementTiming(String.format("<batch of %d statements>", statements.size()), System.nanoTime() - startedAt));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class StatementTiming {
+
+        private final @NotNull String statement;
+        private final long durationNanos;
+
+    }
+
 }
@@ -12,14 +12,41 @@ public final class WrappedDataConverter<OLD, NEW> {
     private final @NotNull String migrationPath;
     private final boolean usingRelativePath;
     private final @NotNull MigrationDataConverter<OLD, NEW> dataConverter;
+    private final int parallelism;
 
     public WrappedDataConverter(@NotNull String migrationPath, boolean usingRelativePath, @NotNull MigrationDataConverter<OLD, NEW> dataConverter) {
+        this(migrationPath, usingRelativePath, dataConverter, 1);
+    }
+
+    public WrappedDataConverter(
+            @NotNull String migrationPath,
+            boolean usingRelativePath,
+            @NotNull MigrationDataConverter<OLD, NEW> dataConverter,
+            int parallelism
+    ) {
         Validate.notEmpty(migrationPath, "migrationPath");
         Validate.notNull(dataConverter, "dataConverter");
+        Validate.isTrue(parallelism >= 1, "parallelism must be positive");
 
         this.migrationPath = migrationPath;
         this.usingRelativePath = usingRelativePath;
         this.dataConverter = dataConverter;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Get a copy of this converter which converts data entries in parallel.
+     * <br>
+     * The order of converted entries is kept, the first failed entry is reported.
+     * @param parallelism the number of conversion threads, 1 means sequential conversion
+     * @return a new wrapped converter
+     */
+    public @NotNull WrappedDataConverter<OLD, NEW> withParallelism(int parallelism) {
+        return new WrappedDataConverter<>(migrationPath, usingRelativePath, dataConverter, parallelism);
+    }
+
+    public boolean isParallel() {
+        return parallelism > 1;
     }
 
     public @NotNull String getFullMigrationPath(@NotNull String migrationsPathRoot) {
@@ -48,6 +75,7 @@ public final class WrappedDataConverter<OLD, NEW> {
                 "migrationPath='" + migrationPath + '\'' +
                 ", usingRelativePath=" + usingRelativePath +
                 ", dataConverter=" + dataConverter +
+                ", parallelism=" + parallelism +
                 '}';
     }
 
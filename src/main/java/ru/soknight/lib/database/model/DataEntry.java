@@ -2,6 +2,7 @@ package ru.soknight.lib.database.model;
 
 import com.j256.ormlite.field.DatabaseField;
 import com.j256.ormlite.table.DatabaseTable;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
@@ -11,19 +12,26 @@ import java.util.Objects;
 import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
-import java.util.function.Function;
-import java.util.function.Supplier;
 
 @Getter
 @NoArgsConstructor
 @DatabaseTable(tableName = "sklibrary_data")
 public final class DataEntry {
 
-    @DatabaseField(columnName = "key", id = true, canBeNull = false)
+    public static final String KEY_COLUMN = "key";
+    public static final String VALUE_COLUMN = "value";
+
+    @DatabaseField(columnName = KEY_COLUMN, id = true, canBeNull = false)
     private @NotNull String key;
 
-    @DatabaseField(columnName = "value", canBeNull = false)
-    private @NotNull String value;
+    @DatabaseField(columnName = VALUE_COLUMN, canBeNull = false)
+    private volatile @NotNull String value;
+
+    // lazily parsed numeric representations of the value, each one is actual while its source string
+    // is the current value instance, since ORMLite sets the value via reflection (e.g. on a DAO refresh);
+    // the holders are immutable, so a thread never pairs a value with a number parsed from another one
+    @Getter(AccessLevel.NONE) private transient volatile ParsedLong parsedLong;
+    @Getter(AccessLevel.NONE) private transient volatile ParsedDouble parsedDouble;
 
     public DataEntry(@NotNull String key, @NotNull Object value) {
         Validate.notEmpty(key, "key");
@@ -32,16 +40,55 @@ public final class DataEntry {
         this.value = value.toString();
     }
 
+    public DataEntry(@NotNull String key, long value) {
+        Validate.notEmpty(key, "key");
+        this.key = key;
+        setValue(value);
+    }
+
     public @NotNull OptionalInt getValueAsInt() {
-        return wrapValue(Integer::parseInt, OptionalInt::of, OptionalInt::empty);
+        ParsedLong parsed = parseLongValue();
+        return parsed.isInt() ? OptionalInt.of((int) parsed.value) : OptionalInt.empty();
     }
 
     public @NotNull OptionalLong getValueAsLong() {
-        return wrapValue(Long::parseLong, OptionalLong::of, OptionalLong::empty);
+        ParsedLong parsed = parseLongValue();
+        return parsed.valid ? OptionalLong.of(parsed.value) : OptionalLong.empty();
     }
 
     public @NotNull OptionalDouble getValueAsDouble() {
-        return wrapValue(Double::parseDouble, OptionalDouble::of, OptionalDouble::empty);
+        ParsedDouble parsed = parseDoubleValue();
+        return parsed.valid ? OptionalDouble.of(parsed.value) : OptionalDouble.empty();
+    }
+
+    /**
+     * Get the value as int without any allocations, the parsed value is cached until the next value change.
+     * @param defaultValue the value which will be returned if the value isn't an int
+     * @return the parsed value or the default value
+     */
+    public int getIntValue(int defaultValue) {
+        ParsedLong parsed = parseLongValue();
+        return parsed.isInt() ? (int) parsed.value : defaultValue;
+    }
+
+    /**
+     * Get the value as long without any allocations, the parsed value is cached until the next value change.
+     * @param defaultValue the value which will be returned if the value isn't a long
+     * @return the parsed value or the default value
+     */
+    public long getLongValue(long defaultValue) {
+        ParsedLong parsed = parseLongValue();
+        return parsed.valid ? parsed.value : defaultValue;
+    }
+
+    /**
+     * Get the value as double without any allocations, the parsed value is cached until the next value change.
+     * @param defaultValue the value which will be returned if the value isn't a double
+     * @return the parsed value or the default value
+     */
+    public double getDoubleValue(double defaultValue) {
+        ParsedDouble parsed = parseDoubleValue();
+        return parsed.valid ? parsed.value : defaultValue;
     }
 
     public void setValue(@NotNull Object value) {
@@ -49,17 +96,32 @@ public final class DataEntry {
         this.value = value.toString();
     }
 
-    private <T, W> W wrapValue(
-            @NotNull Function<String, T> mapper,
-            @NotNull Function<T, W> notNullWrapper,
-            @NotNull Supplier<W> nullWrapper
-    ) {
-        try {
-            T mappedValue = mapper.apply(value);
-            return mappedValue != null ? notNullWrapper.apply(mappedValue) : nullWrapper.get();
-        } catch (Throwable ignored) {
-            return nullWrapper.get();
+    public void setValue(long value) {
+        String formatted = Long.toString(value);
+        this.parsedLong = new ParsedLong(formatted, true, value);
+        this.value = formatted;
+    }
+
+    @SuppressWarnings("StringEquality")
+    private @NotNull ParsedLong parseLongValue() {
+        String value = this.value;
+        ParsedLong parsed = this.parsedLong;
+        if(parsed == null || parsed.source != value) {
+            parsed = ParsedLong.parse(value);
+            this.parsedLong = parsed;
+        }
+        return parsed;
+    }
+
+    @SuppressWarnings("StringEquality")
+    private @NotNull ParsedDouble parseDoubleValue() {
+        String value = this.value;
+        ParsedDouble parsed = this.parsedDouble;
+        if(parsed == null || parsed.source != value) {
+            parsed = ParsedDouble.parse(value);
+            this.parsedDouble = parsed;
         }
+        return parsed;
     }
 
     @Override
@@ -85,9 +147,54 @@ public final class DataEntry {
                 '}';
     }
 
-    private interface ValueWrapper<T> {
+    private static final class ParsedLong {
+
+        private final String source;
+        private final boolean valid;
+        private final long value;
+
+        private ParsedLong(String source, boolean valid, long value) {
+            this.source = source;
+            this.valid = valid;
+            this.value = value;
+        }
+
+        private static @NotNull ParsedLong parse(String source) {
+            try {
+                return new ParsedLong(source, true, Long.parseLong(source));
+            } catch (NumberFormatException ignored) {
+                return new ParsedLong(source, false, 0L);
+            }
+        }
+
+        private boolean isInt() {
+            return valid && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+        }
+
+    }
+
+    private static final class ParsedDouble {
+
+        private final String source;
+        private final boolean valid;
+        private final double value;
 
-        @NotNull T wrap(@NotNull String value) throws NumberFormatException;
+        private ParsedDouble(String source, boolean valid, double value) {
+            this.source = source;
+            this.valid = valid;
+            this.value = value;
+        }
+
+        private static @NotNull ParsedDouble parse(String source) {
+            if(source == null)
+                return new ParsedDouble(null, false, 0D);
+
+            try {
+                return new ParsedDouble(source, true, Double.parseDouble(source));
+            } catch (NumberFormatException ignored) {
+                return new ParsedDouble(source, false, 0D);
+            }
+        }
 
     }
 
@@ -2,10 +2,16 @@ package ru.soknight.lib.executable.quiet;
 
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.soknight.lib.tool.Validate;
 
+import java.lang.reflect.Method;
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 public abstract class AbstractQuietExecutor {
@@ -13,6 +19,7 @@ public abstract class AbstractQuietExecutor {
     protected ThrowableHandler throwableHandler;
     protected ExecutorService asyncExecutorService;
     protected ExecutorService queueExecutorService;
+    protected boolean nonBlockingSubmission;
 
     protected AbstractQuietExecutor() {}
 
@@ -48,6 +55,27 @@ public abstract class AbstractQuietExecutor {
         return useAsyncExecutor(Executors.newFixedThreadPool(threadsNumber));
     }
 
+    /**
+     * Use a virtual thread per task executor (Java 21+) with a limited number of concurrently running tasks.
+     * <br>
+     * The executor is created reflectively, so on older Java versions a fixed thread pool
+     * with the same number of threads will be used instead.
+     * @param maxConcurrency the max number of concurrently running tasks (e.g. the connection pool size)
+     */
+    protected AbstractQuietExecutor useVirtualThreadAsyncExecutor(int maxConcurrency) {
+        Validate.isTrue(maxConcurrency > 0, "Max concurrency must be positive!");
+
+        ExecutorService virtualThreadExecutor;
+        try {
+            Method factoryMethod = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            virtualThreadExecutor = (ExecutorService) factoryMethod.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return useFixedThreadPoolAsyncExecutor(maxConcurrency);
+        }
+
+        return useAsyncExecutor(new ConcurrencyLimitedExecutorService(virtualThreadExecutor, maxConcurrency));
+    }
+
     protected AbstractQuietExecutor useQueueExecutor(@NotNull ExecutorService executorService) {
         this.queueExecutorService = executorService;
         return this;
@@ -57,6 +85,55 @@ public abstract class AbstractQuietExecutor {
         return useQueueExecutor(Executors.newSingleThreadExecutor());
     }
 
+    /**
+     * Use a single thread queue executor with a bounded capacity.
+     * <br>
+     * Rejected tasks are passed to the throwable handler, discarded (dropped or coalesced)
+     * tasks complete their futures with 'null'. See {@link #getQueueMetrics()} for the queue statistics.
+     * @param capacity the max number of queued tasks
+     * @param overflowPolicy the behavior when the queue is full
+     */
+    protected AbstractQuietExecutor useBoundedQueueExecutor(int capacity, @NotNull QueueOverflowPolicy overflowPolicy) {
+        Validate.isTrue(capacity > 0, "Queue capacity must be positive!");
+        Validate.notNull(overflowPolicy, "overflowPolicy");
+        return useQueueExecutor(new BoundedQueueExecutorService(capacity, overflowPolicy));
+    }
+
+    /**
+     * Use a striped queue executor with the specified number of single thread lanes.
+     * <br>
+     * Keyed tasks (see {@link #runQuietlyQueue(Object, ThrowableRunnable)}) with the same key are executed
+     * in the submission order on the same lane, tasks with different keys are executed in parallel.
+     * @param lanesCount the number of lanes
+     */
+    protected AbstractQuietExecutor useStripedQueueExecutor(int lanesCount) {
+        Validate.isTrue(lanesCount > 0, "Lanes count must be positive!");
+        return useQueueExecutor(new StripedExecutorService(lanesCount));
+    }
+
+    /**
+     * Get the statistics of the bounded queue executor.
+     * @return the metrics snapshot or 'null' if the queue executor isn't bounded
+     */
+    public @Nullable QueueMetrics getQueueMetrics() {
+        if(queueExecutorService instanceof BoundedQueueExecutorService)
+            return ((BoundedQueueExecutorService) queueExecutorService).getMetrics();
+
+        return null;
+    }
+
+    /**
+     * Switch this executor to the non-blocking submission mode.
+     * <br>
+     * In this mode the caller thread never waits for a submitted task, the returned
+     * futures are completed on the worker threads and all errors (including rejected
+     * submissions) are passed to the current {@link ThrowableHandler}.
+     */
+    protected AbstractQuietExecutor useNonBlockingSubmission() {
+        this.nonBlockingSubmission = true;
+        return this;
+    }
+
     public void shutdown() {
         if(asyncExecutorService != null)
             asyncExecutorService.shutdown();
@@ -91,13 +168,48 @@ public abstract class AbstractQuietExecutor {
     }
 
     protected CompletableFuture<Void> runQuietlyAsync(ThrowableRunnable runnable) {
+        if(nonBlockingSubmission)
+            return dispatchQuietly(asyncExecutorService, "async", null, () -> { runnable.run(); return null; });
+
         return CompletableFuture.runAsync(() -> runQuietly(runnable), this::submitQuietlyAsync);
     }
 
     protected CompletableFuture<Void> runQuietlyQueue(ThrowableRunnable runnable) {
+        if(nonBlockingSubmission)
+            return dispatchQuietly(queueExecutorService, "queue", null, () -> { runnable.run(); return null; });
+
         return CompletableFuture.runAsync(() -> runQuietly(runnable), this::submitQuietlyQueue);
     }
 
+    /**
+     * Run a keyed task in the queue executor without blocking the caller.
+     * <br>
+     * With the {@link QueueOverflowPolicy#COALESCE_BY_KEY} policy this task replaces
+     * the queued task with the same key.
+     */
+    protected CompletableFuture<Void> runQuietlyQueue(@NotNull Object key, ThrowableRunnable runnable) {
+        Validate.notNull(key, "key");
+        return dispatchQuietly(queueExecutorService, "queue", key, () -> { runnable.run(); return null; });
+    }
+
+    /**
+     * Run a task which touches several keys in the queue executor without blocking the caller.
+     * <br>
+     * The task is executed after all previously queued tasks of these keys and before all later ones,
+     * so the per-key order is kept for batch operations too.
+     */
+    protected CompletableFuture<Void> runQuietlyQueueForKeys(@NotNull Collection<?> keys, ThrowableRunnable runnable) {
+        Validate.notNull(keys, "keys");
+        QuietTask<Void> task = new QuietTask<>(() -> { runnable.run(); return null; });
+        return dispatchQuietly(queueExecutorService, "queue", task, executor -> {
+            if(executor instanceof KeyedExecutor) {
+                ((KeyedExecutor) executor).execute(keys, task);
+            } else {
+                executor.execute(task);
+            }
+        });
+    }
+
     protected void runQuietly(ThrowableRunnable runnable) {
         try {
             runnable.run();
@@ -108,13 +220,30 @@ public abstract class AbstractQuietExecutor {
     }
 
     protected <T> CompletableFuture<T> supplyQuietlyAsync(ThrowableSupplier<T> supplier) {
+        if(nonBlockingSubmission)
+            return dispatchQuietly(asyncExecutorService, "async", null, supplier);
+
         return CompletableFuture.supplyAsync(() -> supplyQuietly(supplier), this::submitQuietlyAsync);
     }
 
     protected <T> CompletableFuture<T> supplyQuietlyQueue(ThrowableSupplier<T> supplier) {
+        if(nonBlockingSubmission)
+            return dispatchQuietly(queueExecutorService, "queue", null, supplier);
+
         return CompletableFuture.supplyAsync(() -> supplyQuietly(supplier), this::submitQuietlyQueue);
     }
 
+    /**
+     * Supply a value by a keyed task in the queue executor without blocking the caller.
+     * <br>
+     * With the {@link QueueOverflowPolicy#COALESCE_BY_KEY} policy this task replaces
+     * the queued task with the same key.
+     */
+    protected <T> CompletableFuture<T> supplyQuietlyQueue(@NotNull Object key, ThrowableSupplier<T> supplier) {
+        Validate.notNull(key, "key");
+        return dispatchQuietly(queueExecutorService, "queue", key, supplier);
+    }
+
     protected <T> T supplyQuietly(ThrowableSupplier<T> supplier) {
         try {
             return supplier.supply();
@@ -124,5 +253,92 @@ public abstract class AbstractQuietExecutor {
             return null;
         }
     }
+
+    private <T> CompletableFuture<T> dispatchQuietly(
+            ExecutorService executorService,
+            String executorName,
+            Object key,
+            ThrowableSupplier<T> supplier
+    ) {
+        QuietTask<T> task = new QuietTask<>(supplier);
+        return dispatchQuietly(executorService, executorName, task, executor -> {
+            if(key != null && executor instanceof KeyedExecutor) {
+                ((KeyedExecutor) executor).execute(key, task);
+            } else {
+                executor.execute(task);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> dispatchQuietly(
+            ExecutorService executorService,
+            String executorName,
+            QuietTask<T> task,
+            Consumer<ExecutorService> submission
+    ) {
+        if(executorService == null)
+            throw new IllegalStateException(executorName + " executor service hasn't been initialized!");
+
+        try {
+            submission.accept(executorService);
+        } catch (RejectedExecutionException ex) {
+            if(throwableHandler != null)
+                throwableHandler.handle(ex);
+            task.discard();
+        }
+        return task.future;
+    }
+
+    private final class QuietTask<T> implements DiscardableRunnable, DeferredCompletionRunnable {
+
+        private final ThrowableSupplier<T> supplier;
+        private final CompletableFuture<T> future;
+
+        private QuietTask(ThrowableSupplier<T> supplier) {
+            this.supplier = supplier;
+            this.future = new CompletableFuture<>();
+        }
+
+        @Override
+        public void run() {
+            future.complete(supplyQuietly(supplier));
+        }
+
+        @Override
+        public void discard() {
+            future.complete(null);
+        }
+
+        @Override
+        public void cancel() {
+            future.cancel(false);
+        }
+
+        @Override
+        public Object execute() throws Throwable {
+            return supplier.supply();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void complete(Object result) {
+            future.complete((T) result);
+        }
+
+        @Override
+        public void fail(@NotNull Throwable error) {
+            if(throwableHandler != null)
+                throwableHandler.handle(error);
+            future.complete(null);
+        }
+
+        @Override
+        public void abort(@NotNull Throwable error) {
+            if(throwableHandler != null)
+                throwableHandler.handle(error);
+            future.completeExceptionally(error);
+        }
+
+    }
     
 }
@@ -0,0 +1,291 @@
+package ru.soknight.lib.executable.quiet;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The single worker thread executor with a bounded queue and a selectable overflow policy.
+ * <br>
+ * Tasks are executed in the submission order, a keyed task may replace the queued task
+ * with the same key if the {@link QueueOverflowPolicy#COALESCE_BY_KEY} policy is used.
+ */
+final class BoundedQueueExecutorService extends AbstractExecutorService implements KeyedExecutor {
+
+    private final int capacity;
+    private final QueueOverflowPolicy overflowPolicy;
+
+    private final ReentrantLock lock;
+    private final Condition notEmpty;
+    private final Condition notFull;
+    private final Condition terminated;
+
+    private final Deque<QueuedTask> queue;
+    private final Map<Object, QueuedTask> keyedTasks;
+    private final Thread worker;
+
+    private boolean shutdown;
+    private boolean workerTerminated;
+
+    // metrics, guarded by the lock
+    private int maxDepth;
+    private long executedTasks;
+    private long droppedTasks;
+    private long coalescedTasks;
+    private long rejectedTasks;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+
+    BoundedQueueExecutorService(int capacity, @NotNull QueueOverflowPolicy overflowPolicy) {
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy;
+
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+        this.terminated = lock.newCondition();
+
+        this.queue = new ArrayDeque<>(Math.min(capacity, 1024));
+        this.keyedTasks = new HashMap<>();
+
+        this.worker = new Thread(this::runWorker, "SKLibrary Queue Worker");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        enqueue(null, command);
+    }
+
+    @Override
+    public void execute(@NotNull Object key, @NotNull Runnable command) {
+        enqueue(key, command);
+    }
+
+    private void enqueue(@Nullable Object key, @NotNull Runnable command) {
+        List<Runnable> discarded = new ArrayList<>(1);
+
+        lock.lock();
+        try {
+            if(shutdown)
+                throw new RejectedExecutionException("Queue executor has been shut down!");
+
+            if(key != null && overflowPolicy == QueueOverflowPolicy.COALESCE_BY_KEY) {
+                QueuedTask queuedTask = keyedTasks.get(key);
+                if(queuedTask != null) {
+                    discarded.add(queuedTask.command);
+                    queuedTask.command = command;
+                    coalescedTasks++;
+                    return;
+                }
+            }
+
+            while(queue.size() >= capacity) {
+                switch(overflowPolicy) {
+                    case DROP_OLDEST:
+                        QueuedTask droppedTask = queue.poll();
+                        if(droppedTask.key != null)
+                            keyedTasks.remove(droppedTask.key, droppedTask);
+                        discarded.add(droppedTask.command);
+                        droppedTasks++;
+                        break;
+                    case REJECT:
+                        rejectedTasks++;
+                        throw new RejectedExecutionException(String.format("Queue is full (%d tasks)!", capacity));
+                    default:
+                        // the worker cannot free a slot while it's waiting for it
+                        if(Thread.currentThread() == worker) {
+                            rejectedTasks++;
+                            throw new RejectedExecutionException(String.format(
+                                    "Queue is full (%d tasks) and the task is submitted by the queue worker itself!", capacity
+                            ));
+                        }
+
+                        try {
+                            notFull.await();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            throw new RejectedExecutionException("Interrupted while waiting for a free queue slot!", ex);
+                        }
+
+                        if(shutdown)
+                            throw new RejectedExecutionException("Queue executor has been shut down!");
+                        break;
+                }
+            }
+
+            QueuedTask queuedTask = new QueuedTask(key, command, System.nanoTime());
+            queue.add(queuedTask);
+            if(key != null)
+                keyedTasks.put(key, queuedTask);
+
+            maxDepth = Math.max(maxDepth, queue.size());
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+            discarded.forEach(BoundedQueueExecutorService::discard);
+        }
+    }
+
+    @NotNull QueueMetrics getMetrics() {
+        lock.lock();
+        try {
+            return new QueueMetrics(
+                    capacity, queue.size(), maxDepth, executedTasks, droppedTasks,
+                    coalescedTasks, rejectedTasks, totalWaitNanos, maxWaitNanos
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runWorker() {
+        while(true) {
+            QueuedTask task;
+
+            lock.lock();
+            try {
+                while(queue.isEmpty() && !shutdown) {
+                    try {
+                        notEmpty.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+
+                if(queue.isEmpty())
+                    break;
+
+                task = queue.poll();
+                if(task.key != null)
+                    keyedTasks.remove(task.key, task);
+
+                long waitNanos = System.nanoTime() - task.enqueuedAt;
+                totalWaitNanos += waitNanos;
+                maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+                executedTasks++;
+
+                notFull.signal();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                task.command.run();
+            } catch (Throwable ignored) {
+                // the worker must survive any task failure
+            }
+        }
+
+        lock.lock();
+        try {
+            workerTerminated = true;
+            terminated.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public @NotNull List<Runnable> shutdownNow() {
+        List<Runnable> pendingTasks = new ArrayList<>();
+
+        lock.lock();
+        try {
+            shutdown = true;
+            queue.forEach(task -> pendingTasks.add(task.command));
+            queue.clear();
+            keyedTasks.clear();
+
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        worker.interrupt();
+        pendingTasks.forEach(BoundedQueueExecutorService::cancel);
+        return pendingTasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return shutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return workerTerminated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+
+        lock.lock();
+        try {
+            while(!workerTerminated) {
+                if(nanos <= 0L)
+                    return false;
+
+                nanos = terminated.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void discard(@NotNull Runnable command) {
+        if(command instanceof DiscardableRunnable)
+            ((DiscardableRunnable) command).discard();
+    }
+
+    private static void cancel(@NotNull Runnable command) {
+        if(command instanceof DiscardableRunnable)
+            ((DiscardableRunnable) command).cancel();
+    }
+
+    private static final class QueuedTask {
+
+        private final Object key;
+        private final long enqueuedAt;
+        private Runnable command;
+
+        private QueuedTask(@Nullable Object key, @NotNull Runnable command, long enqueuedAt) {
+            this.key = key;
+            this.command = command;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+    }
+
+}
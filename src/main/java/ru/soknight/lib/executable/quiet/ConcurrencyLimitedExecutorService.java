@@ -0,0 +1,64 @@
+package ru.soknight.lib.executable.quiet;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executor service wrapper which limits the number of concurrently running tasks.
+ * <br>
+ * Tasks are accepted by the delegate immediately and wait for a permit on its threads,
+ * so it's intended for executors with cheap threads (e.g. virtual threads).
+ */
+final class ConcurrencyLimitedExecutorService extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+
+    ConcurrencyLimitedExecutorService(@NotNull ExecutorService delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        delegate.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public @NotNull List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+}
@@ -0,0 +1,35 @@
+package ru.soknight.lib.executable.quiet;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The task which can be executed without completing it, so the executor decides
+ * when and how the task completes (e.g. only after its transaction has been committed)
+ */
+public interface DeferredCompletionRunnable extends Runnable {
+
+    /**
+     * Execute the task without completing it
+     * @return the task result
+     * @throws Throwable the task error
+     */
+    @Nullable Object execute() throws Throwable;
+
+    /**
+     * Complete the task with the result returned by {@link #execute()}
+     */
+    void complete(@Nullable Object result);
+
+    /**
+     * Complete the task which has failed in {@link #execute()}, the error is handled like by {@link #run()}
+     */
+    void fail(@NotNull Throwable error);
+
+    /**
+     * Complete the task exceptionally, because the effect of its successful execution has been discarded
+     * (e.g. the transaction has been rolled back)
+     */
+    void abort(@NotNull Throwable error);
+
+}
@@ -0,0 +1,18 @@
+package ru.soknight.lib.executable.quiet;
+
+/**
+ * The task which should be notified when an executor discards it without running
+ */
+interface DiscardableRunnable extends Runnable {
+
+    /**
+     * The task has been replaced or dropped by the overflow policy, it's completed quietly.
+     */
+    void discard();
+
+    /**
+     * The task will never run because the executor has been shut down, it's completed exceptionally.
+     */
+    void cancel();
+
+}
@@ -0,0 +1,25 @@
+package ru.soknight.lib.executable.quiet;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
+
+/**
+ * The executor which is able to take a task key into account
+ */
+interface KeyedExecutor {
+
+    void execute(@NotNull Object key, @NotNull Runnable command);
+
+    /**
+     * Execute a task which touches several keys after all previously submitted tasks
+     * of these keys and before all later ones.
+     * <br>
+     * A single queue keeps this order already, so it's executed as an unkeyed task by default.
+     */
+    default void execute(@NotNull Collection<?> keys, @NotNull Runnable command) {
+        ((Executor) this).execute(command);
+    }
+
+}
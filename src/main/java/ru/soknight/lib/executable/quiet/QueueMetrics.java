@@ -0,0 +1,48 @@
+package ru.soknight.lib.executable.quiet;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The immutable snapshot of a bounded queue executor statistics
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class QueueMetrics {
+
+    private final int capacity;
+    private final int depth;
+    private final int maxDepth;
+    private final long executedTasks;
+    private final long droppedTasks;
+    private final long coalescedTasks;
+    private final long rejectedTasks;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+
+    public double getAverageWaitMillis() {
+        return executedTasks != 0L ? totalWaitNanos / 1_000_000D / executedTasks : 0D;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1_000_000D;
+    }
+
+    @Override
+    public @NotNull String toString() {
+        return "QueueMetrics{" +
+                "capacity=" + capacity +
+                ", depth=" + depth +
+                ", maxDepth=" + maxDepth +
+                ", executedTasks=" + executedTasks +
+                ", droppedTasks=" + droppedTasks +
+                ", coalescedTasks=" + coalescedTasks +
+                ", rejectedTasks=" + rejectedTasks +
+                ", averageWaitMillis=" + getAverageWaitMillis() +
+                ", maxWaitMillis=" + getMaxWaitMillis() +
+                '}';
+    }
+
+}
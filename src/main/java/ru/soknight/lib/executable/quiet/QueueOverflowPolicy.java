@@ -0,0 +1,31 @@
+package ru.soknight.lib.executable.quiet;
+
+/**
+ * Represents the behavior of a bounded queue executor when its queue is full
+ */
+public enum QueueOverflowPolicy {
+
+    /**
+     * The submitting thread waits until the queue has a free slot.
+     * <br>
+     * A task submitted by the queue worker itself is rejected instead, since waiting would deadlock.
+     */
+    BLOCK,
+
+    /**
+     * The oldest queued task is discarded to free a slot.
+     */
+    DROP_OLDEST,
+
+    /**
+     * A keyed task replaces the already queued task with the same key,
+     * otherwise the submitting thread waits like with {@link #BLOCK}.
+     */
+    COALESCE_BY_KEY,
+
+    /**
+     * The task is rejected and the rejection is passed to the throwable handler.
+     */
+    REJECT
+
+}
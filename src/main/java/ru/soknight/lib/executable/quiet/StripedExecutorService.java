@@ -0,0 +1,223 @@
+package ru.soknight.lib.executable.quiet;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor with a number of single thread lanes.
+ * <br>
+ * Tasks with the same key are always executed in the submission order on the same lane,
+ * tasks with different keys are executed in parallel across all lanes.
+ * The lane threads are started on demand and expire after {@value #LANE_KEEP_ALIVE_SECONDS} seconds of idle.
+ */
+final class StripedExecutorService extends AbstractExecutorService implements KeyedExecutor {
+
+    private static final long LANE_KEEP_ALIVE_SECONDS = 60L;
+
+    private final ThreadPoolExecutor[] lanes;
+    private final AtomicInteger nextLane;
+    private final Object submissionLock;
+
+    StripedExecutorService(int lanesCount) {
+        this.lanes = new ThreadPoolExecutor[lanesCount];
+        this.nextLane = new AtomicInteger();
+        this.submissionLock = new Object();
+
+        for(int i = 0; i < lanesCount; i++) {
+            String threadName = "SKLibrary Striped Lane #" + (i + 1);
+            lanes[i] = new ThreadPoolExecutor(1, 1, LANE_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            lanes[i].allowCoreThreadTimeOut(true);
+        }
+    }
+
+    @Override
+    public void execute(@NotNull Object key, @NotNull Runnable command) {
+        lanes[getLaneIndex(key)].execute(command);
+    }
+
+    /**
+     * Execute a multi-key task after all previously submitted tasks of these keys.
+     * <br>
+     * A barrier is queued to each involved lane, the task is run by the lane which reaches
+     * its barrier last while the other lanes are waiting, so no later task of these keys can overtake it.
+     */
+    @Override
+    public void execute(@NotNull Collection<?> keys, @NotNull Runnable command) {
+        Set<Integer> laneIndexes = new LinkedHashSet<>();
+        for(Object key : keys)
+            laneIndexes.add(getLaneIndex(key));
+
+        if(laneIndexes.isEmpty()) {
+            execute(command);
+            return;
+        }
+
+        if(laneIndexes.size() == 1) {
+            lanes[laneIndexes.iterator().next()].execute(command);
+            return;
+        }
+
+        LaneBarrier barrier = new LaneBarrier(command, laneIndexes.size());
+
+        // barriers of different tasks must be queued in the same order on all lanes to avoid a deadlock
+        synchronized (submissionLock) {
+            if(isShutdown())
+                throw new RejectedExecutionException("The striped executor has been shut down!");
+
+            for(int laneIndex : laneIndexes)
+                lanes[laneIndex].execute(new LaneArrival(barrier));
+        }
+    }
+
+    @Override
+    public void execute(@NotNull Runnable command) {
+        int lane = (nextLane.getAndIncrement() & Integer.MAX_VALUE) % lanes.length;
+        lanes[lane].execute(command);
+    }
+
+    private int getLaneIndex(@NotNull Object key) {
+        // spreading the hash bits to avoid clustering of similar hash codes
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (submissionLock) {
+            for(ThreadPoolExecutor lane : lanes)
+                lane.shutdown();
+        }
+    }
+
+    /**
+     * Stop all lanes and cancel the tasks which will never run.
+     * <br>
+     * A multi-key task is listed once if at least one of its barriers hasn't been reached,
+     * its barrier is released, so the lanes waiting for it aren't blocked.
+     */
+    @Override
+    public @NotNull List<Runnable> shutdownNow() {
+        List<Runnable> drainedTasks = new ArrayList<>();
+        synchronized (submissionLock) {
+            for(ThreadPoolExecutor lane : lanes)
+                drainedTasks.addAll(lane.shutdownNow());
+        }
+
+        List<Runnable> pendingTasks = new ArrayList<>();
+        Set<LaneBarrier> abandonedBarriers = new HashSet<>();
+        for(Runnable task : drainedTasks) {
+            if(task instanceof LaneArrival) {
+                LaneBarrier barrier = ((LaneArrival) task).barrier;
+                if(!abandonedBarriers.add(barrier))
+                    continue;
+
+                barrier.abandon();
+                task = barrier.command;
+            }
+            pendingTasks.add(task);
+        }
+
+        pendingTasks.forEach(StripedExecutorService::cancel);
+        return pendingTasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        for(ThreadPoolExecutor lane : lanes)
+            if(!lane.isShutdown())
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        for(ThreadPoolExecutor lane : lanes)
+            if(!lane.isTerminated())
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for(ThreadPoolExecutor lane : lanes)
+            if(!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+                return false;
+        return true;
+    }
+
+    private static void cancel(@NotNull Runnable command) {
+        if(command instanceof DiscardableRunnable)
+            ((DiscardableRunnable) command).cancel();
+    }
+
+    private static final class LaneArrival implements Runnable {
+
+        private final LaneBarrier barrier;
+
+        private LaneArrival(@NotNull LaneBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void run() {
+            barrier.arrive();
+        }
+
+    }
+
+    private static final class LaneBarrier {
+
+        private final Runnable command;
+        private final AtomicInteger remainingLanes;
+        private final CountDownLatch completion;
+
+        private LaneBarrier(@NotNull Runnable command, int lanesCount) {
+            this.command = command;
+            this.remainingLanes = new AtomicInteger(lanesCount);
+            this.completion = new CountDownLatch(1);
+        }
+
+        private void arrive() {
+            if(remainingLanes.decrementAndGet() == 0) {
+                try {
+                    command.run();
+                } finally {
+                    completion.countDown();
+                }
+                return;
+            }
+
+            try {
+                completion.await();
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // the task will never run, so the lanes which have reached the barrier are released
+        private void abandon() {
+            completion.countDown();
+        }
+
+    }
+
+}
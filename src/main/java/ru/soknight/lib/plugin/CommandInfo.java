@@ -13,9 +13,16 @@ import ru.soknight.lib.component.replacement.TextComponentReplacement;
 import ru.soknight.lib.configuration.Messages;
 import ru.soknight.lib.cooldown.preset.LitePlayersCooldownStorage;
 import ru.soknight.lib.cooldown.preset.PlayersCooldownStorage;
+import ru.soknight.lib.database.instrumentation.QueryStatistics;
+import ru.soknight.lib.database.instrumentation.QueryStatisticsRegistry;
 import ru.soknight.lib.format.DateFormatter;
 
+import java.util.List;
+import java.util.Map;
+
 public class CommandInfo extends PermissibleCommand {
+
+	private static final String STATS_PERMISSION = "sklibrary.command.stats";
 	
 	private final PluginDescriptionFile description;
 	private final PlayersCooldownStorage cooldownStorage;
@@ -33,6 +40,12 @@ public class CommandInfo extends PermissibleCommand {
 
 	@Override
 	public void executeCommand(CommandSender sender, CommandArguments args) {
+		// Database statistics subcommand
+		if(!args.isEmpty() && args.get(0).equalsIgnoreCase("stats")) {
+			executeStatsCommand(sender);
+			return;
+		}
+
 		String name = sender.getName();
 		
 		// Checks if sender has cooldown or not
@@ -71,4 +84,30 @@ public class CommandInfo extends PermissibleCommand {
 		sender.sendMessage(" ");
 	}
 
+	private void executeStatsCommand(CommandSender sender) {
+		if(!sender.hasPermission(STATS_PERMISSION)) {
+			sender.sendMessage(ChatColor.RED + "You don't have permission for this command.");
+			return;
+		}
+
+		Map<String, QueryStatistics> registeredStatistics = QueryStatisticsRegistry.getRegisteredStatistics();
+		if(registeredStatistics.isEmpty()) {
+			sender.sendMessage(ChatColor.GRAY + "There are no plugins using the SKLibrary database.");
+			return;
+		}
+
+		sender.sendMessage(ChatColor.GRAY + "   Database statistics");
+		registeredStatistics.forEach((pluginName, statistics) -> {
+			sender.sendMessage(" " + ChatColor.AQUA + pluginName + ChatColor.RESET + ":");
+
+			List<String> report = statistics.formatReport();
+			if(report.isEmpty()) {
+				sender.sendMessage("   " + ChatColor.GRAY + "No operations yet.");
+			} else {
+				report.forEach(line -> sender.sendMessage("   " + line));
+			}
+		});
+		sender.sendMessage(" ");
+	}
+
 }
@@ -0,0 +1,34 @@
+package ru.soknight.lib;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+/**
+ * The temporary plugin data folders for the benchmarks, the tests use the JUnit temporary directories
+ */
+public final class TestDirectories {
+
+    private TestDirectories() {}
+
+    public static @NotNull File createTemporary(@NotNull String prefix) {
+        try {
+            return Files.createTempDirectory(prefix).toFile();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public static void deleteRecursively(@NotNull File file) {
+        File[] children = file.listFiles();
+        if(children != null)
+            for(File child : children)
+                deleteRecursively(child);
+
+        file.delete();
+    }
+
+}
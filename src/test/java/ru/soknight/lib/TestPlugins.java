@@ -0,0 +1,38 @@
+package ru.soknight.lib;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.util.logging.Logger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The factory of mocked plugins, so the database components can be booted without a server
+ */
+public final class TestPlugins {
+
+    public static final String PLUGIN_NAME = "TestPlugin";
+
+    private TestPlugins() {}
+
+    /**
+     * Create a mocked plugin which provides the name, the logger, the description and the data folder.
+     * <br>
+     * The resources (e.g. migration configs) are loaded from the test classpath.
+     * @param dataFolder the plugin data folder
+     * @return the mocked plugin
+     */
+    public static @NotNull Plugin create(@NotNull File dataFolder) {
+        Plugin plugin = mock(Plugin.class);
+        when(plugin.getName()).thenReturn(PLUGIN_NAME);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger(PLUGIN_NAME));
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getDescription()).thenReturn(new PluginDescriptionFile(PLUGIN_NAME, "1.0", TestPlugins.class.getName()));
+        return plugin;
+    }
+
+}
@@ -0,0 +1,61 @@
+package ru.soknight.lib.configuration;
+
+import org.bukkit.ChatColor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The precompiled template rendering against colorizing and replacing each placeholder on every call
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageTemplateBenchmark {
+
+	private static final String MESSAGE = "&7[&bShop&7] &f%player% &7bought &e%amount%x %item% &7for &a%price%%currency% &7at &f%time%.";
+
+	private Object[] replacements;
+	private MessageTemplate template;
+
+	@Setup
+	public void setUp() {
+		this.replacements = new Object[] {
+				"%player%", "SoKnight",
+				"%amount%", 64,
+				"%item%", "Diamond",
+				"%price%", 1250.5D,
+				"%currency%", "$",
+				"%time%", "12:45"
+		};
+
+		// compiled once on refresh, like the messages of Messages
+		this.template = MessageTemplate.compile(ChatColor.translateAlternateColorCodes('&', MESSAGE));
+	}
+
+	@Benchmark
+	public String replaceEachPlaceholder() {
+		String message = ChatColor.translateAlternateColorCodes('&', MESSAGE);
+		for(int i = 0; i < replacements.length - 1; i += 2) {
+			Object value = replacements[i + 1];
+			message = message.replace(replacements[i].toString(), value != null ? value.toString() : "");
+		}
+		return message;
+	}
+
+	@Benchmark
+	public String renderTemplate() {
+		return template.render(replacements);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MessageTemplateBenchmark.class.getSimpleName()).build()).run();
+	}
+
+}
@@ -0,0 +1,83 @@
+package ru.soknight.lib.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTemplateTest {
+
+	@Test
+	void placeholdersAreCompiled() {
+		MessageTemplate template = MessageTemplate.compile("Hello, %name%!");
+		assertEquals("Hello, %name%!", template.getSource());
+		assertTrue(template.hasPlaceholders());
+
+		assertFalse(MessageTemplate.compile("100% of 5%").hasPlaceholders());
+	}
+
+	@Test
+	void placeholdersAreRecognized() {
+		assertTrue(MessageTemplate.isPlaceholder("%player_name-1.0%"));
+		assertFalse(MessageTemplate.isPlaceholder("%%"));
+		assertFalse(MessageTemplate.isPlaceholder("%a b%"));
+		assertFalse(MessageTemplate.isPlaceholder("name"));
+	}
+
+	@Test
+	void placeholdersAreRendered() {
+		MessageTemplate template = MessageTemplate.compile("%player% has %amount% coins, %player%!");
+		Object[] replacements = { "%player%", "Steve", "%amount%", 42 };
+
+		assertTrue(template.isRenderable(replacements));
+		assertEquals("Steve has 42 coins, Steve!", template.render(replacements));
+	}
+
+	@Test
+	void unknownPlaceholdersAreKept() {
+		MessageTemplate template = MessageTemplate.compile("Hello, %name%!");
+		assertEquals("Hello, %name%!", template.render("%other%", "value"));
+		assertEquals("Hello, !", template.render("%name%", null));
+		assertEquals("Hello, %name%!", template.render((Object[]) null));
+		assertTrue(template.isRenderable((Object[]) null));
+	}
+
+	@Test
+	void percentBeforePlaceholderIsLiteral() {
+		MessageTemplate template = MessageTemplate.compile("100%%name%");
+		assertTrue(template.isRenderable("%name%", "5"));
+		assertEquals("100%5", template.render("%name%", "5"));
+	}
+
+	@Test
+	void sharedPercentIsNotRenderable() {
+		// the sequential replacing of '%a%' breaks the '%b%' placeholder and vice versa
+		MessageTemplate template = MessageTemplate.compile("%a%b%");
+		assertFalse(template.isRenderable("%a%", "x"));
+		assertFalse(template.isRenderable("%b%", "x"));
+	}
+
+	@Test
+	void oddReplacementIsIgnored() {
+		MessageTemplate template = MessageTemplate.compile("Hello, %name%%suffix%");
+		Object[] replacements = { "%name%", "Steve", "%suffix%" };
+
+		assertTrue(template.isRenderable(replacements));
+		assertEquals("Hello, Steve%suffix%", template.render(replacements));
+	}
+
+	@Test
+	void nestedValuesAreNotRenderable() {
+		// sequential replacing gives 'x and x', the single pass would give '%b% and x'
+		MessageTemplate template = MessageTemplate.compile("%a% and %b%");
+		assertFalse(template.isRenderable("%a%", "%b%", "%b%", "x"));
+		assertFalse(template.isRenderable("%a%", new StringBuilder("50%"), "%b%", "x"));
+	}
+
+	@Test
+	void nonPlaceholderKeysAreNotRenderable() {
+		MessageTemplate template = MessageTemplate.compile("Hello, name!");
+		assertFalse(template.isRenderable("name", "Steve"));
+		assertFalse(template.isRenderable(42, "Steve"));
+	}
+
+}
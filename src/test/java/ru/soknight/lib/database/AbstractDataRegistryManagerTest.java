@@ -0,0 +1,167 @@
+package ru.soknight.lib.database;
+
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.support.ConnectionSource;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.soknight.lib.TestPlugins;
+import ru.soknight.lib.database.model.DataEntry;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The data registry behaviour which must be the same with and without the native UPSERT statements
+ */
+abstract class AbstractDataRegistryManagerTest {
+
+    @TempDir
+    File tempDir;
+
+    protected ConnectionSource connectionSource;
+    protected DataRegistryManager registryManager;
+
+    protected abstract @NotNull ConnectionSource createConnectionSource(@NotNull File tempDir) throws SQLException;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        this.connectionSource = createConnectionSource(tempDir);
+        this.registryManager = new DataRegistryManager(TestPlugins.create(tempDir), connectionSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registryManager.shutdown();
+        DaoManager.clearCache();
+        connectionSource.closeQuietly();
+    }
+
+    @Test
+    void savedEntryIsOverwritten() throws Exception {
+        await(registryManager.saveEntry("key", "first"));
+        assertEquals("first", await(registryManager.getEntry("key")).getValue());
+
+        await(registryManager.saveEntry("key", 42L));
+        DataEntry dataEntry = await(registryManager.getEntry("key"));
+        assertEquals("42", dataEntry.getValue());
+        assertEquals(42L, dataEntry.getLongValue(0L));
+
+        assertEquals(1, await(registryManager.getAllEntries()).size());
+    }
+
+    @Test
+    void removedEntryIsMissing() throws Exception {
+        await(registryManager.saveEntry("key", "value"));
+        assertTrue(await(registryManager.hasEntry("key")));
+
+        await(registryManager.removeEntry("key"));
+        assertFalse(await(registryManager.hasEntry("key")));
+        assertNull(await(registryManager.getEntry("key")));
+    }
+
+    @Test
+    void batchOperationsKeepSubmissionOrder() throws Exception {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        List<String> removedKeys = new ArrayList<>();
+        for(int i = 0; i < 100; i++) {
+            entries.put("key-" + i, i);
+            if(i % 2 == 0)
+                removedKeys.add("key-" + i);
+        }
+
+        // all operations are submitted without waiting, so only the executor keeps their order
+        CompletableFuture<Void> saved = registryManager.saveEntries(entries);
+        CompletableFuture<Void> removed = registryManager.removeEntries(removedKeys);
+        CompletableFuture<Void> restored = registryManager.saveEntry("key-0", "restored");
+        await(CompletableFuture.allOf(saved, removed, restored));
+
+        Map<String, String> stored = await(registryManager.getEntriesMap());
+        assertEquals(51, stored.size());
+        assertEquals("restored", stored.get("key-0"));
+        assertEquals("1", stored.get("key-1"));
+        assertFalse(stored.containsKey("key-2"));
+    }
+
+    @Test
+    void largeKeySetsAreRemoved() throws Exception {
+        // more keys than the bound variables limit of one query
+        Map<String, Object> entries = new LinkedHashMap<>();
+        for(int i = 0; i < 1_200; i++)
+            entries.put("key-" + i, i);
+        entries.put("kept", "value");
+
+        await(registryManager.saveEntries(entries));
+        entries.remove("kept");
+        await(registryManager.removeEntries(entries.keySet()));
+
+        Map<String, String> stored = await(registryManager.getEntriesMap());
+        assertEquals(1, stored.size());
+        assertEquals("value", stored.get("kept"));
+    }
+
+    @Test
+    void entriesAreFoundInRequestedOrder() throws Exception {
+        Map<String, Object> entries = new LinkedHashMap<>();
+        entries.put("a", 1);
+        entries.put("b", 2);
+        entries.put("c", 3);
+        await(registryManager.saveEntries(entries));
+
+        Map<String, DataEntry> found = await(registryManager.getEntries(Arrays.asList("c", "missing", "a")));
+        assertEquals(Arrays.asList("c", "a"), new ArrayList<>(found.keySet()));
+        assertEquals(3, found.get("c").getIntValue(0));
+    }
+
+    @Test
+    void missingEntryIsCreatedWithDefaultValue() throws Exception {
+        assertEquals("default", await(registryManager.getEntryOrDefault("key", "default")).getValue());
+        assertEquals("default", await(registryManager.getEntryOrDefault("key", "other")).getValue());
+    }
+
+    @Test
+    void writeBehindCacheFlushesLargeRemovals() throws Exception {
+        registryManager.useWriteBehindCache(1, TimeUnit.HOURS, 100);
+
+        // more keys than the bound variables limit of one query
+        Map<String, Object> entries = new LinkedHashMap<>();
+        for(int i = 0; i < 1_200; i++)
+            entries.put("key-" + i, i);
+
+        await(registryManager.saveEntries(entries));
+        await(registryManager.flush());
+        assertEquals(1_200, await(registryManager.getEntriesMap()).size());
+
+        await(registryManager.removeEntries(entries.keySet()));
+        await(registryManager.flush());
+        assertTrue(await(registryManager.getEntriesMap()).isEmpty());
+    }
+
+    @Test
+    void evictedCachedKeysAreLoadedAgain() throws Exception {
+        registryManager.useWriteBehindCache(1, TimeUnit.HOURS, 10);
+
+        for(int i = 0; i < 50; i++)
+            registryManager.saveEntry("key-" + i, i);
+        await(registryManager.flush());
+
+        for(int i = 0; i < 50; i++)
+            assertEquals(i, await(registryManager.getEntry("key-" + i)).getIntValue(-1));
+    }
+
+    protected static <T> T await(@NotNull CompletableFuture<T> future) throws Exception {
+        return future.get(5, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,80 @@
+package ru.soknight.lib.database;
+
+import com.j256.ormlite.dao.DaoManager;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.soknight.lib.TestDirectories;
+import ru.soknight.lib.TestPlugins;
+import ru.soknight.lib.database.migration.NewScore;
+import ru.soknight.lib.database.migration.OldScore;
+import ru.soknight.lib.database.model.DataEntry;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The database bootstrap time on SQLite, for a new database file and for an up to date one (the fast path)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+@Fork(1)
+public class BootstrapBenchmark {
+
+    private static final String DATABASE_FILE = "bootstrap.db";
+
+    @Param({"false", "true"})
+    private boolean schemaUpToDate;
+
+    private File dataFolder;
+    private Plugin plugin;
+    private MemoryConfiguration config;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Exception {
+        this.dataFolder = TestDirectories.createTemporary("bootstrap-benchmark");
+        this.plugin = TestPlugins.create(dataFolder);
+
+        this.config = new MemoryConfiguration();
+        config.set("type", "sqlite");
+        config.set("sqlite.file", DATABASE_FILE);
+
+        // the first bootstrap stores the schema version
+        if(schemaUpToDate)
+            bootstrap();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        if(!schemaUpToDate)
+            new File(dataFolder, DATABASE_FILE).delete();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        TestDirectories.deleteRecursively(dataFolder);
+    }
+
+    @Benchmark
+    public Database bootstrap() throws Exception {
+        Database database = new Database(plugin, config)
+                .setActualSchemaVersion(1)
+                .registerTables(DataEntry.class, OldScore.class, NewScore.class)
+                .complete();
+
+        database.shutdown();
+        DaoManager.clearCache();
+        return database;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BootstrapBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
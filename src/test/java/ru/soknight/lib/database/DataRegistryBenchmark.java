@@ -0,0 +1,80 @@
+package ru.soknight.lib.database;
+
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.soknight.lib.TestDirectories;
+import ru.soknight.lib.TestPlugins;
+import ru.soknight.lib.database.model.DataEntry;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The data registry throughput on SQLite with and without the write-behind cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataRegistryBenchmark {
+
+    private static final int KEYS_COUNT = 1_000;
+
+    @Param({"false", "true"})
+    private boolean writeBehindCache;
+
+    private File dataFolder;
+    private ConnectionSource connectionSource;
+    private DataRegistryManager registryManager;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        this.dataFolder = TestDirectories.createTemporary("registry-benchmark");
+        this.connectionSource = new JdbcConnectionSource("jdbc:sqlite:" + new File(dataFolder, "registry.db").getAbsolutePath());
+        this.registryManager = new DataRegistryManager(TestPlugins.create(dataFolder), connectionSource);
+
+        if(writeBehindCache)
+            registryManager.useWriteBehindCache(1, TimeUnit.SECONDS);
+
+        for(int i = 0; i < KEYS_COUNT; i++)
+            registryManager.saveEntry(key(i), i);
+        registryManager.flush().join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        registryManager.shutdown();
+        DaoManager.clearCache();
+        connectionSource.closeQuietly();
+        TestDirectories.deleteRecursively(dataFolder);
+    }
+
+    @Benchmark
+    public DataEntry getEntry() {
+        return registryManager.getEntry(key(ThreadLocalRandom.current().nextInt(KEYS_COUNT))).join();
+    }
+
+    @Benchmark
+    public void saveEntry() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        registryManager.saveEntry(key(random.nextInt(KEYS_COUNT)), random.nextLong()).join();
+    }
+
+    private static String key(int index) {
+        return "key-" + index;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DataRegistryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,60 @@
+package ru.soknight.lib.database;
+
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.support.ConnectionSource;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.soknight.lib.TestPlugins;
+import ru.soknight.lib.database.credentials.local.H2DatabaseCredentials;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The whole database bootstrap on the embedded H2 in the compatibility modes
+ */
+class H2DatabaseTest {
+
+    @TempDir
+    File tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = { "MySQL", "PostgreSQL" })
+    void databaseIsBootedOnH2(String mode) throws Exception {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("type", "h2");
+        config.set("h2.file", "test");
+        config.set("h2.mode", mode);
+
+        Plugin plugin = TestPlugins.create(tempDir);
+        Database database = new Database(plugin, config).setActualSchemaVersion(1).complete();
+        ConnectionSource connection = null;
+        DataRegistryManager registryManager = null;
+        try {
+            assertEquals(DatabaseType.H2, database.getDatabaseType());
+            assertTrue(((H2DatabaseCredentials) database.getCredentials()).isDatabaseFileExists(plugin));
+
+            connection = database.establishConnection();
+            registryManager = new DataRegistryManager(plugin, connection);
+            registryManager.saveEntry("key", "value").get(5, TimeUnit.SECONDS);
+            assertEquals("value", registryManager.getEntry("key").get(5, TimeUnit.SECONDS).getValue());
+
+            // the operations are reported through the instrumented connection
+            assertFalse(database.getQueryStatistics().getOperations().isEmpty());
+        } finally {
+            if(registryManager != null)
+                registryManager.shutdown();
+            if(connection != null)
+                connection.closeQuietly();
+
+            database.shutdown();
+            DaoManager.clearCache();
+        }
+    }
+
+}
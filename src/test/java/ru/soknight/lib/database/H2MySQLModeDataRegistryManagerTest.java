@@ -0,0 +1,58 @@
+package ru.soknight.lib.database;
+
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The data registry on H2 in the MySQL mode, it hasn't the native UPSERT statements,
+ * so the ORMLite fallback is used, but the MySQL dialect statements are run on it directly
+ */
+class H2MySQLModeDataRegistryManagerTest extends AbstractDataRegistryManagerTest {
+
+    @Override
+    protected @NotNull ConnectionSource createConnectionSource(@NotNull File tempDir) throws SQLException {
+        return new JdbcConnectionSource("jdbc:h2:mem:registry-" + UUID.randomUUID() + ";MODE=MySQL");
+    }
+
+    @Test
+    void upsertStatementsAreNotUsed() {
+        assertNull(DataRegistryStatements.create(connectionSource));
+    }
+
+    @Test
+    void mysqlUpsertStatementsAreUsed() throws SQLException {
+        DataRegistryStatements statements = DataRegistryStatements.create(connectionSource, "mysql");
+        assertNotNull(statements);
+
+        try {
+            statements.upsert("key", "first");
+            statements.upsert("key", "second");
+            assertEquals("second", statements.selectValue("key"));
+
+            Map<String, String> entries = new LinkedHashMap<>();
+            entries.put("key", "third");
+            entries.put("other", "value");
+            statements.upsertAll(entries);
+
+            assertEquals("third", statements.selectValue("key"));
+            assertEquals("value", statements.selectValue("other"));
+            assertTrue(statements.exists("other"));
+
+            statements.delete("other");
+            assertFalse(statements.exists("other"));
+        } finally {
+            statements.close();
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package ru.soknight.lib.database;
+
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * The data registry on H2 in the PostgreSQL mode with the ORMLite fallback.
+ * <br>
+ * H2 doesn't support 'ON CONFLICT ... DO UPDATE', the PostgreSQL UPSERT statement
+ * is the same as the SQLite one, so it's covered by {@link SQLiteDataRegistryManagerTest}.
+ */
+class H2PostgreSQLModeDataRegistryManagerTest extends AbstractDataRegistryManagerTest {
+
+    @Override
+    protected @NotNull ConnectionSource createConnectionSource(@NotNull File tempDir) throws SQLException {
+        return new JdbcConnectionSource("jdbc:h2:mem:registry-" + UUID.randomUUID() + ";MODE=PostgreSQL");
+    }
+
+}
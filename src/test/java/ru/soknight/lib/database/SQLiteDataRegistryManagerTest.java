@@ -0,0 +1,83 @@
+package ru.soknight.lib.database;
+
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.soknight.lib.TestPlugins;
+import ru.soknight.lib.database.instrumentation.InstrumentedConnectionSource;
+import ru.soknight.lib.database.instrumentation.QueryStatistics;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The data registry with the native UPSERT statements and the single writer
+ */
+class SQLiteDataRegistryManagerTest extends AbstractDataRegistryManagerTest {
+
+    @Override
+    protected @NotNull ConnectionSource createConnectionSource(@NotNull File tempDir) throws SQLException {
+        return new JdbcConnectionSource("jdbc:sqlite:" + new File(tempDir, "registry.db").getAbsolutePath());
+    }
+
+    @Test
+    void upsertStatementsAreUsed() throws SQLException {
+        DataRegistryStatements statements = DataRegistryStatements.create(connectionSource);
+        assertNotNull(statements);
+
+        try {
+            statements.upsert("key", "first");
+            statements.upsert("key", "second");
+            assertEquals("second", statements.selectValue("key"));
+
+            Map<String, String> entries = new LinkedHashMap<>();
+            entries.put("key", "third");
+            entries.put("other", "value");
+            statements.upsertAll(entries);
+
+            assertEquals("third", statements.selectValue("key"));
+            assertEquals("value", statements.selectValue("other"));
+            assertTrue(statements.exists("other"));
+
+            statements.delete("other");
+            assertFalse(statements.exists("other"));
+            assertNull(statements.selectValue("other"));
+        } finally {
+            statements.close();
+        }
+    }
+
+    @Test
+    void upsertStatementsAreReportedToStatistics() throws Exception {
+        QueryStatistics statistics = new QueryStatistics(Logger.getLogger("SQLiteDataRegistryManagerTest"), 0L);
+        ConnectionSource instrumentedSource = InstrumentedConnectionSource.wrap(connectionSource, statistics);
+        DataRegistryManager instrumentedManager = new DataRegistryManager(TestPlugins.create(tempDir), instrumentedSource);
+
+        try {
+            // the table creation isn't a part of the checked operations
+            statistics.reset();
+
+            await(instrumentedManager.saveEntry("key", "value"));
+            assertEquals("value", await(instrumentedManager.getEntry("key")).getValue());
+
+            assertEquals(1L, getOperationCount(statistics, "runUpdate"));
+            assertEquals(1L, getOperationCount(statistics, "runQuery"));
+        } finally {
+            instrumentedManager.shutdown();
+        }
+    }
+
+    private static long getOperationCount(@NotNull QueryStatistics statistics, @NotNull String operation) {
+        return statistics.getOperations().stream()
+                .filter(operationStatistics -> operationStatistics.getOperation().equals(operation))
+                .mapToLong(QueryStatistics.OperationStatistics::getCount)
+                .sum();
+    }
+
+}
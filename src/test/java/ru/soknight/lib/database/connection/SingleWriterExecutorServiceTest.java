@@ -0,0 +1,251 @@
+package ru.soknight.lib.database.connection;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.jdbc.JdbcConnectionSource;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.soknight.lib.database.model.DataEntry;
+import ru.soknight.lib.executable.quiet.DeferredCompletionRunnable;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleWriterExecutorServiceTest {
+
+    @TempDir
+    File tempDir;
+
+    private ConnectionSource writerConnection;
+    private ConnectionSource readerConnection;
+    private Dao<DataEntry, String> writerDao;
+    private Dao<DataEntry, String> readerDao;
+    private SingleWriterExecutorService executorService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String url = "jdbc:sqlite:" + new File(tempDir, "writer.db").getAbsolutePath();
+        this.writerConnection = new JdbcConnectionSource(url);
+        this.readerConnection = new JdbcConnectionSource(url);
+
+        TableUtils.createTableIfNotExists(writerConnection, DataEntry.class);
+        this.writerDao = DaoManager.createDao(writerConnection, DataEntry.class);
+        this.readerDao = DaoManager.createDao(readerConnection, DataEntry.class);
+
+        this.executorService = new SingleWriterExecutorService(writerConnection, Logger.getLogger("SingleWriterExecutorServiceTest"));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executorService.shutdown();
+        executorService.awaitTermination(5, TimeUnit.SECONDS);
+
+        DaoManager.clearCache();
+        writerConnection.closeQuietly();
+        readerConnection.closeQuietly();
+    }
+
+    @Test
+    void isRequiredForSQLite() {
+        assertTrue(SingleWriterExecutorService.isRequired(writerConnection));
+    }
+
+    @Test
+    void groupedTasksAreCompletedAfterCommit() throws Exception {
+        CountDownLatch writerReleased = blockWriter();
+        List<RecordingTask> tasks = new ArrayList<>();
+        for(int i = 0; i < 10; i++) {
+            String key = "key-" + i;
+            RecordingTask task = new RecordingTask(() -> writerDao.create(new DataEntry(key, key)), key);
+            tasks.add(task);
+            executorService.execute(task);
+        }
+
+        writerReleased.countDown();
+
+        for(RecordingTask task : tasks) {
+            assertEquals(1, task.completion.get(5, TimeUnit.SECONDS));
+            // the change is visible for another connection when the task is completed
+            assertTrue(task.committedOnCompletion, "the task has been completed before commit");
+        }
+        assertEquals(10L, readerDao.countOf());
+    }
+
+    @Test
+    void failedTaskDoesNotRollBackItsGroup() throws Exception {
+        CountDownLatch writerReleased = blockWriter();
+
+        RecordingTask first = new RecordingTask(() -> writerDao.create(new DataEntry("first", "1")), "first");
+        RecordingTask failing = new RecordingTask(() -> {
+            throw new IllegalStateException("task failure");
+        }, null);
+        RecordingTask last = new RecordingTask(() -> writerDao.create(new DataEntry("last", "2")), "last");
+
+        executorService.execute(first);
+        executorService.execute(failing);
+        executorService.execute(last);
+        writerReleased.countDown();
+
+        assertEquals(1, first.completion.get(5, TimeUnit.SECONDS));
+        assertEquals(1, last.completion.get(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Object> failedCompletion = failing.completion;
+        Throwable failure = assertThrows(Exception.class, () -> failedCompletion.get(5, TimeUnit.SECONDS)).getCause();
+        assertTrue(failure instanceof IllegalStateException);
+        assertFalse(failing.aborted);
+
+        assertTrue(readerDao.idExists("first"));
+        assertTrue(readerDao.idExists("last"));
+    }
+
+    @Test
+    void readerDoesNotSeeGroupWhichIsRolledBack() throws Exception {
+        // the deferred constraint is checked on commit only, so it fails the whole group
+        writerDao.executeRaw("PRAGMA foreign_keys = ON");
+        writerDao.executeRaw("CREATE TABLE parents (id INTEGER PRIMARY KEY)");
+        writerDao.executeRaw("CREATE TABLE children (parent_id INTEGER REFERENCES parents (id) DEFERRABLE INITIALLY DEFERRED)");
+
+        CountDownLatch writerReleased = blockWriter();
+        CountDownLatch groupOpened = new CountDownLatch(1);
+        CountDownLatch readerFinished = new CountDownLatch(1);
+
+        RecordingTask written = new RecordingTask(() -> writerDao.create(new DataEntry("uncommitted", "1")), "uncommitted");
+        RecordingTask violating = new RecordingTask(() -> {
+            int inserted = writerDao.executeRaw("INSERT INTO children (parent_id) VALUES (42)");
+            groupOpened.countDown();
+            readerFinished.await(5, TimeUnit.SECONDS);
+            return inserted;
+        }, null);
+
+        executorService.execute(written);
+        executorService.execute(violating);
+        writerReleased.countDown();
+
+        assertTrue(groupOpened.await(5, TimeUnit.SECONDS));
+        // the reader isn't blocked by the open group and doesn't see its rows
+        boolean visibleInOpenGroup;
+        try {
+            visibleInOpenGroup = readerDao.idExists("uncommitted");
+        } finally {
+            readerFinished.countDown();
+        }
+        assertFalse(visibleInOpenGroup);
+
+        CompletableFuture<Object> writtenCompletion = written.completion;
+        CompletableFuture<Object> violatingCompletion = violating.completion;
+        assertThrows(Exception.class, () -> writtenCompletion.get(5, TimeUnit.SECONDS));
+        assertThrows(Exception.class, () -> violatingCompletion.get(5, TimeUnit.SECONDS));
+        assertTrue(written.aborted);
+        assertTrue(violating.aborted);
+
+        assertFalse(readerDao.idExists("uncommitted"));
+    }
+
+    @Test
+    void writerConnectionIsOpenedForPlainSource() throws SQLException {
+        ConnectionSource writerSource = SingleWriterExecutorService.openWriterConnection(readerConnection);
+        try {
+            assertNotSame(readerConnection, writerSource);
+        } finally {
+            writerSource.closeQuietly();
+        }
+    }
+
+    @Test
+    void tasksAreRejectedAfterShutdown() {
+        executorService.shutdown();
+        assertThrows(RejectedExecutionException.class, () -> executorService.execute(() -> {}));
+    }
+
+    // occupies the writer thread, so the tasks submitted meanwhile are grouped into one transaction
+    private @NotNull CountDownLatch blockWriter() throws InterruptedException {
+        CountDownLatch writerStarted = new CountDownLatch(1);
+        CountDownLatch writerReleased = new CountDownLatch(1);
+
+        executorService.execute(() -> {
+            writerStarted.countDown();
+            try {
+                writerReleased.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertTrue(writerStarted.await(5, TimeUnit.SECONDS));
+        return writerReleased;
+    }
+
+    @FunctionalInterface
+    private interface Action {
+
+        Object run() throws Exception;
+
+    }
+
+    private final class RecordingTask implements DeferredCompletionRunnable {
+
+        private final Action action;
+        private final String writtenKey;
+        private final CompletableFuture<Object> completion;
+
+        private volatile boolean committedOnCompletion;
+        private volatile boolean aborted;
+
+        private RecordingTask(@NotNull Action action, @Nullable String writtenKey) {
+            this.action = action;
+            this.writtenKey = writtenKey;
+            this.completion = new CompletableFuture<>();
+        }
+
+        @Override
+        public void run() {
+            try {
+                complete(execute());
+            } catch (Throwable ex) {
+                fail(ex);
+            }
+        }
+
+        @Override
+        public @Nullable Object execute() throws Throwable {
+            return action.run();
+        }
+
+        @Override
+        public void complete(@Nullable Object result) {
+            try {
+                this.committedOnCompletion = writtenKey != null && readerDao.idExists(writtenKey);
+            } catch (SQLException ignored) {
+            }
+            completion.complete(result);
+        }
+
+        @Override
+        public void fail(@NotNull Throwable error) {
+            completion.completeExceptionally(error);
+        }
+
+        @Override
+        public void abort(@NotNull Throwable error) {
+            this.aborted = true;
+            completion.completeExceptionally(error);
+        }
+
+    }
+
+}
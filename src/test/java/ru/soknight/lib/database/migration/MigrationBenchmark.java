@@ -0,0 +1,91 @@
+package ru.soknight.lib.database.migration;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.misc.TransactionManager;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.TableUtils;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.soknight.lib.TestDirectories;
+import ru.soknight.lib.TestPlugins;
+import ru.soknight.lib.database.Database;
+import ru.soknight.lib.database.migration.runtime.WrappedDataConverter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The migration of one million rows on SQLite, in memory (chunk size 0) and by streaming chunks
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class MigrationBenchmark {
+
+    private static final String MIGRATION_PATH = "/migrations/v2/convert_scores.dbsp";
+    private static final int ROWS_COUNT = 1_000_000;
+    private static final int SEED_CHUNK_SIZE = 10_000;
+
+    @Param({"0", "1000", "10000"})
+    private int chunkSize;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private File dataFolder;
+    private Database database;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        this.dataFolder = TestDirectories.createTemporary("migration-benchmark");
+
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("type", "sqlite");
+        config.set("sqlite.file", "benchmark.db");
+        config.set("sqlite.profile", "fast");
+
+        this.database = new Database(TestPlugins.create(dataFolder), config)
+                .setActualSchemaVersion(2)
+                .setMigrationStreamingChunkSize(chunkSize)
+                .registerDataConverter(new WrappedDataConverter<>(MIGRATION_PATH, false, new ScoreConverter(), parallelism));
+
+        ConnectionSource connection = database.getBootstrapConnection();
+        TableUtils.createTable(connection, OldScore.class);
+        Dao<OldScore, Integer> oldScoresDao = DaoManager.createDao(connection, OldScore.class);
+
+        for(int from = 0; from < ROWS_COUNT; from += SEED_CHUNK_SIZE) {
+            List<OldScore> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+            for(int i = from; i < from + SEED_CHUNK_SIZE; i++)
+                chunk.add(new OldScore(i, "player-" + i, String.valueOf(i)));
+
+            TransactionManager.callInTransaction(connection, () -> oldScoresDao.create(chunk));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        database.shutdown();
+        database.getBootstrapConnection().closeQuietly();
+        DaoManager.clearCache();
+        TestDirectories.deleteRecursively(dataFolder);
+    }
+
+    @Benchmark
+    public boolean migrate() throws Exception {
+        return database.getMigrationManager().runMigrations();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MigrationBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
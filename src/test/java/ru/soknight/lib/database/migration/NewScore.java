@@ -0,0 +1,24 @@
+package ru.soknight.lib.database.migration;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@DatabaseTable(tableName = "new_scores")
+public class NewScore {
+
+    @DatabaseField(id = true)
+    private int id;
+
+    @DatabaseField(canBeNull = false)
+    private String player;
+
+    @DatabaseField
+    private int points;
+
+}
@@ -0,0 +1,24 @@
+package ru.soknight.lib.database.migration;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.table.DatabaseTable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@DatabaseTable(tableName = "old_scores")
+public class OldScore {
+
+    @DatabaseField(id = true)
+    private int id;
+
+    @DatabaseField(canBeNull = false)
+    private String player;
+
+    @DatabaseField(canBeNull = false)
+    private String score;
+
+}
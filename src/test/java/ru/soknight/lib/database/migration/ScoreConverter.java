@@ -0,0 +1,16 @@
+package ru.soknight.lib.database.migration;
+
+import org.jetbrains.annotations.NotNull;
+import ru.soknight.lib.database.migration.runtime.MigrationDataConverter;
+
+/**
+ * The data converter is a class, since the data types are resolved from its generic interface
+ */
+public class ScoreConverter implements MigrationDataConverter<OldScore, NewScore> {
+
+    @Override
+    public @NotNull NewScore convert(@NotNull OldScore old) {
+        return new NewScore(old.getId(), old.getPlayer(), Integer.parseInt(old.getScore()));
+    }
+
+}
@@ -0,0 +1,110 @@
+package ru.soknight.lib.database.migration;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.DaoManager;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.table.TableUtils;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.soknight.lib.TestPlugins;
+import ru.soknight.lib.database.Database;
+import ru.soknight.lib.database.migration.runtime.WrappedDataConverter;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingMigrationTest {
+
+    private static final String MIGRATION_PATH = "/migrations/v2/convert_scores.dbsp";
+    private static final int CHUNK_SIZE = 100;
+
+    // not a multiple of the chunk size, so the last partial chunk is transferred too
+    private static final int ROWS_COUNT = 1_050;
+
+    @TempDir
+    File tempDir;
+
+    private Database database;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("type", "sqlite");
+        config.set("sqlite.file", "test.db");
+
+        this.database = new Database(TestPlugins.create(tempDir), config)
+                .setActualSchemaVersion(2)
+                .setMigrationStreamingChunkSize(CHUNK_SIZE);
+
+        ConnectionSource connection = database.getBootstrapConnection();
+        TableUtils.createTable(connection, OldScore.class);
+
+        List<OldScore> oldScores = new ArrayList<>(ROWS_COUNT);
+        for(int i = 0; i < ROWS_COUNT; i++)
+            oldScores.add(new OldScore(i, "player-" + i, String.valueOf(i * 10)));
+
+        Dao<OldScore, Integer> oldScoresDao = DaoManager.createDao(connection, OldScore.class);
+        oldScoresDao.create(oldScores);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+        database.getBootstrapConnection().closeQuietly();
+        DaoManager.clearCache();
+    }
+
+    @Test
+    void dataIsStreamedByChunks() throws Exception {
+        database.registerDataConverter(MIGRATION_PATH, new ScoreConverter());
+
+        assertTrue(database.getMigrationManager().runMigrations());
+        assertMigrated();
+    }
+
+    @Test
+    void dataIsStreamedWithParallelConversion() throws Exception {
+        database.registerDataConverter(new WrappedDataConverter<>(MIGRATION_PATH, false, new ScoreConverter(), 4));
+
+        assertTrue(database.getMigrationManager().runMigrations());
+        assertMigrated();
+    }
+
+    @Test
+    void unknownMigrationConverterIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> database.registerDataConverter("/migrations/v2/missing.dbsp", new ScoreConverter()));
+    }
+
+    private void assertMigrated() throws SQLException {
+        ConnectionSource connection = database.getBootstrapConnection();
+        Dao<NewScore, Integer> newScoresDao = DaoManager.createDao(connection, NewScore.class);
+
+        List<NewScore> newScores = newScoresDao.queryBuilder().orderBy("id", true).query();
+        assertEquals(ROWS_COUNT, newScores.size());
+        for(int i = 0; i < ROWS_COUNT; i++) {
+            NewScore newScore = newScores.get(i);
+            assertEquals(i, newScore.getId());
+            assertEquals("player-" + i, newScore.getPlayer());
+            assertEquals(i * 10, newScore.getPoints());
+        }
+
+        // the migration statements are executed after the data has been transferred
+        DatabaseConnection databaseConnection = connection.getReadOnlyConnection(null);
+        try {
+            assertFalse(databaseConnection.isTableExists("old_scores"));
+        } finally {
+            connection.releaseConnection(databaseConnection);
+        }
+
+        assertEquals(2, database.getMigrationManager().getCurrentSchemaVersion());
+    }
+
+}
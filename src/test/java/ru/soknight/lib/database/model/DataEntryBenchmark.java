@@ -0,0 +1,68 @@
+package ru.soknight.lib.database.model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The typed accessors of a counter entry against parsing its string value on each read
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataEntryBenchmark {
+
+    private DataEntry dataEntry;
+    private String value;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        this.dataEntry = new DataEntry("counter", "1234567890");
+        this.value = dataEntry.getValue();
+    }
+
+    @Benchmark
+    public long parseOnEachRead() {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException ex) {
+            return 0L;
+        }
+    }
+
+    @Benchmark
+    public long typedRead() {
+        return dataEntry.getLongValue(0L);
+    }
+
+    @Benchmark
+    public OptionalLong optionalRead() {
+        return dataEntry.getValueAsLong();
+    }
+
+    @Benchmark
+    public long parsedIncrement() {
+        long incremented = Long.parseLong(dataEntry.getValue()) + 1L;
+        dataEntry.setValue(Long.toString(incremented));
+        return incremented;
+    }
+
+    @Benchmark
+    public long typedIncrement() {
+        long incremented = dataEntry.getLongValue(0L) + 1L;
+        dataEntry.setValue(incremented);
+        return incremented;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DataEntryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
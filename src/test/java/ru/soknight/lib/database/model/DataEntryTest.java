@@ -0,0 +1,70 @@
+package ru.soknight.lib.database.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataEntryTest {
+
+    @Test
+    void typedValueIsParsedOnce() {
+        DataEntry dataEntry = new DataEntry("key", "42");
+        assertEquals(42, dataEntry.getIntValue(-1));
+        assertEquals(42L, dataEntry.getLongValue(-1L));
+        assertEquals(42D, dataEntry.getDoubleValue(-1D));
+
+        dataEntry.setValue("not a number");
+        assertEquals(-1L, dataEntry.getLongValue(-1L));
+        assertFalse(dataEntry.getValueAsDouble().isPresent());
+    }
+
+    @Test
+    void typedSetterKeepsStringValue() {
+        DataEntry dataEntry = new DataEntry("key", 0L);
+        dataEntry.setValue(Long.MAX_VALUE);
+
+        assertEquals(String.valueOf(Long.MAX_VALUE), dataEntry.getValue());
+        assertEquals(Long.MAX_VALUE, dataEntry.getLongValue(0L));
+        // the value doesn't fit into int
+        assertFalse(dataEntry.getValueAsInt().isPresent());
+    }
+
+    @Test
+    void valueSetByReflectionInvalidatesParsedValues() throws ReflectiveOperationException {
+        DataEntry dataEntry = new DataEntry("key", 1L);
+        assertEquals(1L, dataEntry.getLongValue(0L));
+        assertEquals(1D, dataEntry.getDoubleValue(0D));
+
+        // like ORMLite does on a DAO refresh
+        Field valueField = DataEntry.class.getDeclaredField("value");
+        valueField.setAccessible(true);
+        valueField.set(dataEntry, "2.5");
+
+        assertFalse(dataEntry.getValueAsLong().isPresent());
+        assertEquals(2.5D, dataEntry.getDoubleValue(0D));
+    }
+
+    @Test
+    void concurrentChangesNeverMixValues() throws InterruptedException {
+        DataEntry dataEntry = new DataEntry("key", 0L);
+        Thread writer = new Thread(() -> {
+            for(long i = 0; i < 200_000; i++)
+                dataEntry.setValue(i % 2 == 0 ? Long.toString(i) : "value-" + i);
+        });
+
+        writer.start();
+        try {
+            while(writer.isAlive()) {
+                String value = dataEntry.getValue();
+                long parsed = dataEntry.getLongValue(-1L);
+                // a number is parsed from some written value, a text is never mapped to a number
+                assertTrue(parsed == -1L || parsed % 2 == 0, "unexpected parsed value " + parsed + " of " + value);
+            }
+        } finally {
+            writer.join();
+        }
+    }
+
+}
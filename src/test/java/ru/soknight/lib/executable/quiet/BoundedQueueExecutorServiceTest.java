@@ -0,0 +1,114 @@
+package ru.soknight.lib.executable.quiet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedQueueExecutorServiceTest {
+
+    private BoundedQueueExecutorService executorService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if(executorService != null) {
+            executorService.shutdownNow();
+            executorService.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void workerSurvivesTaskError() throws Exception {
+        this.executorService = new BoundedQueueExecutorService(16, QueueOverflowPolicy.BLOCK);
+
+        executorService.execute(() -> {
+            throw new AssertionError("task failure");
+        });
+
+        CompletableFuture<Boolean> nextTask = new CompletableFuture<>();
+        executorService.execute(() -> nextTask.complete(true));
+        assertTrue(nextTask.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shutdownNowCancelsPendingTasks() throws InterruptedException {
+        this.executorService = new BoundedQueueExecutorService(16, QueueOverflowPolicy.BLOCK);
+        CountDownLatch workerStarted = new CountDownLatch(1);
+        CountDownLatch workerReleased = new CountDownLatch(1);
+
+        executorService.execute(() -> {
+            workerStarted.countDown();
+            awaitQuietly(workerReleased);
+        });
+        assertTrue(workerStarted.await(5, TimeUnit.SECONDS));
+
+        RecordingTask pendingTask = new RecordingTask();
+        executorService.execute(pendingTask);
+
+        List<Runnable> pendingTasks = executorService.shutdownNow();
+        workerReleased.countDown();
+
+        assertEquals(1, pendingTasks.size());
+        assertTrue(pendingTask.cancelled);
+        assertFalse(pendingTask.executed);
+    }
+
+    @Test
+    void blockingSubmitFromWorkerIsRejected() throws Exception {
+        this.executorService = new BoundedQueueExecutorService(1, QueueOverflowPolicy.BLOCK);
+        AtomicReference<Throwable> submitError = new AtomicReference<>();
+        CompletableFuture<Void> submitted = new CompletableFuture<>();
+
+        executorService.execute(() -> {
+            try {
+                // the first task fills the queue, the second one would wait for the worker itself
+                executorService.execute(() -> {});
+                executorService.execute(() -> {});
+            } catch (Throwable ex) {
+                submitError.set(ex);
+            } finally {
+                submitted.complete(null);
+            }
+        });
+
+        submitted.get(5, TimeUnit.SECONDS);
+        assertTrue(submitError.get() instanceof RejectedExecutionException);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class RecordingTask implements DiscardableRunnable {
+
+        private volatile boolean executed;
+        private volatile boolean cancelled;
+
+        @Override
+        public void run() {
+            this.executed = true;
+        }
+
+        @Override
+        public void discard() {
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+    }
+
+}
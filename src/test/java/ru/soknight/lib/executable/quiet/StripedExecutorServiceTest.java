@@ -0,0 +1,157 @@
+package ru.soknight.lib.executable.quiet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedExecutorServiceTest {
+
+    private static final int LANES_COUNT = 4;
+
+    // small integer keys are spread to the lanes by their values
+    private static final Integer FIRST_LANE_KEY = 0;
+    private static final Integer SECOND_LANE_KEY = 1;
+
+    private StripedExecutorService executorService;
+
+    @BeforeEach
+    void setUp() {
+        this.executorService = new StripedExecutorService(LANES_COUNT);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executorService.shutdownNow();
+        executorService.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void sameKeyTasksAreExecutedInSubmissionOrder() throws InterruptedException {
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        for(int i = 0; i < 1_000; i++) {
+            int index = i;
+            executorService.execute("key", () -> executed.add(index));
+        }
+
+        awaitTermination();
+
+        assertEquals(1_000, executed.size());
+        for(int i = 0; i < executed.size(); i++)
+            assertEquals(i, executed.get(i));
+    }
+
+    @Test
+    void multiKeyTaskIsNotOvertakenByLaterTasksOfItsKeys() throws InterruptedException {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch firstLaneReleased = new CountDownLatch(1);
+
+        executorService.execute(FIRST_LANE_KEY, () -> {
+            awaitQuietly(firstLaneReleased);
+            executed.add("blocking");
+        });
+        executorService.execute(Arrays.asList(FIRST_LANE_KEY, SECOND_LANE_KEY), () -> executed.add("multi-key"));
+        executorService.execute(SECOND_LANE_KEY, () -> executed.add("later"));
+
+        // the second lane is free, but its later task must wait for the multi-key one
+        Thread.sleep(100L);
+        assertTrue(executed.isEmpty());
+
+        firstLaneReleased.countDown();
+        awaitTermination();
+
+        assertEquals(Arrays.asList("blocking", "multi-key", "later"), executed);
+    }
+
+    @Test
+    void multiKeyTaskOfOneLaneIsExecutedInOrder() throws InterruptedException {
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+        executorService.execute(FIRST_LANE_KEY, () -> executed.add("first"));
+        executorService.execute(Collections.singletonList(FIRST_LANE_KEY), () -> executed.add("multi-key"));
+        executorService.execute(FIRST_LANE_KEY, () -> executed.add("last"));
+
+        awaitTermination();
+
+        assertEquals(Arrays.asList("first", "multi-key", "last"), executed);
+    }
+
+    @Test
+    void tasksAreRejectedAfterShutdown() {
+        executorService.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () -> executorService.execute(FIRST_LANE_KEY, () -> {}));
+        assertThrows(RejectedExecutionException.class, () -> executorService.execute(Arrays.asList(FIRST_LANE_KEY, SECOND_LANE_KEY), () -> {}));
+    }
+
+    @Test
+    void pendingTasksAreCancelledOnShutdownNow() throws InterruptedException {
+        CountDownLatch firstLaneStarted = new CountDownLatch(1);
+        executorService.execute(FIRST_LANE_KEY, () -> {
+            firstLaneStarted.countDown();
+            awaitQuietly(new CountDownLatch(1));
+        });
+        assertTrue(firstLaneStarted.await(5, TimeUnit.SECONDS));
+
+        CancellableTask queued = new CancellableTask();
+        CancellableTask multiKey = new CancellableTask();
+        executorService.execute(FIRST_LANE_KEY, queued);
+        executorService.execute(Arrays.asList(FIRST_LANE_KEY, SECOND_LANE_KEY), multiKey);
+
+        // the second lane waits on the barrier of the multi-key task
+        Thread.sleep(100L);
+
+        List<Runnable> pendingTasks = executorService.shutdownNow();
+        assertEquals(Arrays.asList(queued, multiKey), pendingTasks);
+        assertTrue(queued.cancelled);
+        assertTrue(multiKey.cancelled);
+
+        assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(queued.executed);
+        assertFalse(multiKey.executed);
+    }
+
+    private void awaitTermination() throws InterruptedException {
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class CancellableTask implements DiscardableRunnable {
+
+        private volatile boolean executed;
+        private volatile boolean cancelled;
+
+        @Override
+        public void run() {
+            this.executed = true;
+        }
+
+        @Override
+        public void discard() {
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+    }
+
+}